@@ -0,0 +1,123 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.loadgen;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Thread safe latency recording per operation. Every sample is kept twice: corrected for coordinated
+ * omission (what a user arriving on schedule would have seen) and uncorrected (pure service time), so the
+ * report shows how much of the tail is queueing in front of the service.
+ */
+public class LatencyRecorder {
+    /** Latencies are recorded in microseconds, up to an hour, to 3 significant digits. */
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<Operation, Recorder> corrected = new EnumMap<>(Operation.class);
+    private final Map<Operation, Recorder> uncorrected = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    /**
+     * Histograms and error count of one operation over one interval.
+     */
+    public record Result(Histogram corrected, Histogram uncorrected, long errors) { }
+
+    public LatencyRecorder() {
+        for (Operation operation : Operation.values()) {
+            corrected.put(operation, new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS));
+            uncorrected.put(operation, new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Record an operation whose intended start time is known (open model).
+     *
+     * @param operation Operation run
+     * @param intendedStartNanos When the operation should have started
+     * @param actualStartNanos When it actually started
+     * @param endNanos When it finished
+     * @param success Whether it succeeded
+     */
+    public void record(Operation operation, long intendedStartNanos, long actualStartNanos, long endNanos,
+            boolean success) {
+        corrected.get(operation).recordValue(toMicros(endNanos - intendedStartNanos));
+        uncorrected.get(operation).recordValue(toMicros(endNanos - actualStartNanos));
+        countError(operation, success);
+    }
+
+    /**
+     * Record an operation of a client that intends to start one every {@code expectedIntervalNanos}
+     * (closed model with pacing). Missed starts are back filled, as HdrHistogram does for coordinated
+     * omission. An interval of 0 records the latency as is.
+     *
+     * @param operation Operation run
+     * @param latencyNanos How long it took
+     * @param expectedIntervalNanos Intended time between starts, 0 for none
+     * @param success Whether it succeeded
+     */
+    public void recordPaced(Operation operation, long latencyNanos, long expectedIntervalNanos, boolean success) {
+        long latencyMicros = toMicros(latencyNanos);
+        corrected.get(operation).recordValueWithExpectedInterval(latencyMicros, toMicros(expectedIntervalNanos));
+        uncorrected.get(operation).recordValue(latencyMicros);
+        countError(operation, success);
+    }
+
+    /**
+     * Take the results recorded since the last call and start a new interval.
+     *
+     * @return Results per operation
+     */
+    public Map<Operation, Result> nextInterval() {
+        Map<Operation, Result> results = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            results.put(operation, new Result(
+                corrected.get(operation).getIntervalHistogram(),
+                uncorrected.get(operation).getIntervalHistogram(),
+                errors.get(operation).sumThenReset()));
+        }
+
+        return results;
+    }
+
+    private void countError(Operation operation, boolean success) {
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+}
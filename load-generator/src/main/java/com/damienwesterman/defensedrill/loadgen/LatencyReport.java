@@ -0,0 +1,147 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.loadgen;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+import com.damienwesterman.defensedrill.loadgen.LatencyRecorder.Result;
+
+/**
+ * Writes the results of a run:
+ * <ul>
+ *   <li>{@code <label>-<model>-<operation>.hgrm}: full corrected percentile distribution in milliseconds,
+ *       the HdrHistogram format, so two releases can be plotted or diffed against each other</li>
+ *   <li>{@code summary.csv}: one row per operation (and "total") per run, appended across runs, which is
+ *       also what the throughput-vs-cores scaling curve is read from</li>
+ * </ul>
+ * and prints the same summary to stdout.
+ */
+public class LatencyReport {
+    private static final String TOTAL = "total";
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final String CSV_HEADER = "label,model,server_cores,clients,target_rate,operation,count,errors,"
+        + "throughput_rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms,uncorrected_p99_ms\n";
+
+    private final LoadGeneratorOptions options;
+
+    public LatencyReport(LoadGeneratorOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Write the reports for one measured run.
+     *
+     * @param results Results per operation
+     * @param elapsed How long the measured run took
+     * @throws IOException if the reports cannot be written
+     */
+    public void write(Map<Operation, Result> results, Duration elapsed) throws IOException {
+        Files.createDirectories(options.outputDirectory());
+
+        Histogram totalCorrected = null;
+        Histogram totalUncorrected = null;
+        long totalErrors = 0;
+
+        StringBuilder csv = new StringBuilder();
+        System.out.printf("%-18s %10s %8s %12s %10s %10s %10s %10s %10s%n",
+            "operation", "count", "errors", "rps", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        for (Map.Entry<Operation, Result> entry : results.entrySet()) {
+            Result result = entry.getValue();
+            if (0 == result.corrected().getTotalCount()) {
+                continue;
+            }
+
+            String name = entry.getKey().getName();
+            summarize(csv, name, result.corrected(), result.uncorrected(), result.errors(), elapsed);
+            writeHistogram(name, result.corrected());
+
+            if (null == totalCorrected) {
+                totalCorrected = result.corrected().copy();
+                totalUncorrected = result.uncorrected().copy();
+            } else {
+                totalCorrected.add(result.corrected());
+                totalUncorrected.add(result.uncorrected());
+            }
+            totalErrors += result.errors();
+        }
+
+        if (null != totalCorrected) {
+            summarize(csv, TOTAL, totalCorrected, totalUncorrected, totalErrors, elapsed);
+            writeHistogram(TOTAL, totalCorrected);
+        }
+
+        Path summary = options.outputDirectory().resolve("summary.csv");
+        boolean newFile = !Files.exists(summary);
+        try (Writer writer = Files.newBufferedWriter(summary, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (newFile) {
+                writer.write(CSV_HEADER);
+            }
+            writer.write(csv.toString());
+        }
+    }
+
+    private void summarize(StringBuilder csv, String name, Histogram corrected, Histogram uncorrected,
+            long errors, Duration elapsed) {
+        // Requests completed per second, the corrected histogram also holds back filled samples
+        double throughput = uncorrected.getTotalCount() / (elapsed.toNanos() / 1e9);
+
+        System.out.printf(Locale.ROOT, "%-18s %10d %8d %12.1f %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+            name, uncorrected.getTotalCount(), errors, throughput,
+            millis(corrected, 50), millis(corrected, 90), millis(corrected, 99), millis(corrected, 99.9),
+            corrected.getMaxValue() / MICROS_PER_MILLI);
+
+        csv.append(String.format(Locale.ROOT, "%s,%s,%d,%d,%.1f,%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+            options.label(), options.model().name().toLowerCase(), options.serverCores(), options.clients(),
+            LoadGeneratorOptions.Model.OPEN == options.model() ? options.rate() : 0.0,
+            name, uncorrected.getTotalCount(), errors, throughput,
+            millis(corrected, 50), millis(corrected, 90), millis(corrected, 99), millis(corrected, 99.9),
+            corrected.getMaxValue() / MICROS_PER_MILLI, millis(uncorrected, 99)));
+    }
+
+    private void writeHistogram(String name, Histogram histogram) throws IOException {
+        Path file = options.outputDirectory().resolve(
+            options.label() + "-" + options.model().name().toLowerCase() + "-" + name + ".hgrm");
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
@@ -0,0 +1,172 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.loadgen;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.damienwesterman.defensedrill.loadgen.LoadGeneratorOptions.Model;
+
+/**
+ * Drives a configurable mix of requests against a running DefenseDrill Security instance, typically one
+ * started with the perf profile, and reports coordinated omission corrected latencies. See
+ * {@link LoadGeneratorOptions#USAGE} for the options.
+ * <br><br>
+ * In the open model request i is due at {@code start + i / rate}. A worker that picks it up late, because
+ * every worker was busy, still measures from the due time, so time spent queueing behind a slow service
+ * shows up in the latencies instead of silently lowering the request rate. In the closed model each client
+ * sends its next request as soon as the previous one returns, or paced with {@code --pacing}.
+ */
+public class LoadGenerator {
+    private final LoadGeneratorOptions options;
+    private final ServiceClient client;
+    private final OperationMix mix;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    public LoadGenerator(LoadGeneratorOptions options) {
+        this.options = options;
+        this.client = new ServiceClient(options);
+        this.mix = new OperationMix(options.mix());
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (1 == args.length && "--help".equals(args[0])) {
+            System.out.print(LoadGeneratorOptions.USAGE);
+            return;
+        }
+
+        LoadGeneratorOptions options;
+        try {
+            options = LoadGeneratorOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadGeneratorOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        new LoadGenerator(options).run();
+    }
+
+    /**
+     * Warm up, then run and report the measured interval.
+     */
+    public void run() throws InterruptedException, IOException {
+        System.out.println("Loading " + options.target() + " with the " + options.model().name().toLowerCase()
+            + " model, " + options.clients() + " clients"
+            + (Model.OPEN == options.model() ? ", " + options.rate() + " requests/s" : ""));
+
+        if (!options.warmup().isZero()) {
+            runFor(options.warmup());
+            recorder.nextInterval();
+        }
+
+        long start = System.nanoTime();
+        runFor(options.duration());
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        new LatencyReport(options).write(recorder.nextInterval(), elapsed);
+    }
+
+    private void runFor(Duration duration) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(options.clients());
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + duration.toNanos();
+        AtomicLong nextRequest = new AtomicLong();
+
+        List<Future<?>> futures = new ArrayList<>(options.clients());
+        for (int i = 0; i < options.clients(); i++) {
+            futures.add(workers.submit(() -> {
+                if (Model.OPEN == options.model()) {
+                    openModelWorker(startNanos, endNanos, nextRequest);
+                } else {
+                    closedModelWorker(endNanos);
+                }
+                return null;
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load generator worker failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void openModelWorker(long startNanos, long endNanos, AtomicLong nextRequest) throws InterruptedException {
+        double intervalNanos = 1e9 / options.rate();
+        while (true) {
+            long intendedStart = startNanos + (long) (nextRequest.getAndIncrement() * intervalNanos);
+            if (intendedStart >= endNanos) {
+                return;
+            }
+
+            waitUntil(intendedStart);
+            Operation operation = mix.next();
+            long actualStart = System.nanoTime();
+            boolean success = client.execute(operation);
+            recorder.record(operation, intendedStart, actualStart, System.nanoTime(), success);
+        }
+    }
+
+    private void closedModelWorker(long endNanos) throws InterruptedException {
+        long pacingNanos = options.pacing().toNanos();
+        long nextStart = System.nanoTime();
+        while (nextStart < endNanos) {
+            waitUntil(nextStart);
+            Operation operation = mix.next();
+            long start = System.nanoTime();
+            boolean success = client.execute(operation);
+            long end = System.nanoTime();
+            recorder.recordPaced(operation, end - start, pacingNanos, success);
+
+            nextStart = 0 == pacingNanos ? end : Math.max(end, nextStart + pacingNanos);
+        }
+    }
+
+    private static void waitUntil(long nanoTime) throws InterruptedException {
+        long remaining;
+        while (0 < (remaining = nanoTime - System.nanoTime())) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+}
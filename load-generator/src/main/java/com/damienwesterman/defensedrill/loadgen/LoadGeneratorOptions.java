@@ -0,0 +1,168 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.loadgen;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Command line options of the load generator. Every option has a default, see {@link #USAGE}.
+ */
+public record LoadGeneratorOptions(
+        URI target,
+        Model model,
+        double rate,
+        int clients,
+        Duration pacing,
+        Duration warmup,
+        Duration duration,
+        Map<Operation, Integer> mix,
+        String userPrefix,
+        int userCount,
+        String password,
+        Path outputDirectory,
+        String label,
+        int serverCores) {
+
+    /**
+     * Open model: requests arrive at a fixed rate whether or not earlier ones have finished, latency is
+     * measured from when a request should have been sent.
+     * <br>
+     * Closed model: a fixed number of clients each wait for a response before sending their next request.
+     */
+    public enum Model { OPEN, CLOSED }
+
+    public static final String USAGE = """
+        Usage: java -jar load-generator.jar [options]
+          --target <url>            Service to load (default http://localhost:5555)
+          --model <open|closed>     Load model (default closed)
+          --rate <per second>       Open model arrival rate (default 100)
+          --clients <n>             Closed model clients, open model maximum requests in flight (default 16)
+          --pacing <duration>       Closed model: each client intends to start a request this often, longer
+                                    requests are corrected for coordinated omission (default 0, no pacing)
+          --warmup <duration>       Discarded warmup (default 10s)
+          --duration <duration>     Measured run (default 60s)
+          --mix <op=weight,...>     Operation weights, operations: authenticate, authenticate_role, log_in,
+                                    list_users, crud (default authenticate=70,authenticate_role=10,
+                                    log_in=10,list_users=8,crud=2)
+          --user-prefix <prefix>    Synthetic user name prefix (default perfuser)
+          --user-count <n>          Number of synthetic users (default 10000)
+          --password <password>     Synthetic user password (default perfpassword)
+          --out <directory>         Report directory (default load-results)
+          --label <label>           Name of this run in the reports, e.g. the release (default run)
+          --server-cores <n>        Cores the service was given, recorded for scaling curves (default 0)
+        Durations are written as 500ms, 30s or 5m.
+        """;
+
+    private static final String DEFAULT_MIX = "authenticate=70,authenticate_role=10,log_in=10,list_users=8,crud=2";
+
+    /**
+     * Parse the command line.
+     *
+     * @param args Command line arguments
+     * @return Parsed options
+     * @throws IllegalArgumentException on an unknown option or a bad value
+     */
+    public static LoadGeneratorOptions parse(String[] args) {
+        URI target = URI.create("http://localhost:5555");
+        Model model = Model.CLOSED;
+        double rate = 100;
+        int clients = 16;
+        Duration pacing = Duration.ZERO;
+        Duration warmup = Duration.ofSeconds(10);
+        Duration duration = Duration.ofSeconds(60);
+        Map<Operation, Integer> mix = parseMix(DEFAULT_MIX);
+        String userPrefix = "perfuser";
+        int userCount = 10000;
+        String password = "perfpassword";
+        Path outputDirectory = Path.of("load-results");
+        String label = "run";
+        int serverCores = 0;
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+
+            switch (option) {
+                case "--target" -> target = URI.create(value.replaceAll("/+$", ""));
+                case "--model" -> model = Model.valueOf(value.toUpperCase());
+                case "--rate" -> rate = Double.parseDouble(value);
+                case "--clients" -> clients = Integer.parseInt(value);
+                case "--pacing" -> pacing = parseDuration(value);
+                case "--warmup" -> warmup = parseDuration(value);
+                case "--duration" -> duration = parseDuration(value);
+                case "--mix" -> mix = parseMix(value);
+                case "--user-prefix" -> userPrefix = value;
+                case "--user-count" -> userCount = Integer.parseInt(value);
+                case "--password" -> password = value;
+                case "--out" -> outputDirectory = Path.of(value);
+                case "--label" -> label = value;
+                case "--server-cores" -> serverCores = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+
+        if (0 >= rate || 0 >= clients || 0 >= userCount || duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException("rate, clients, user-count and duration must be positive");
+        }
+
+        return new LoadGeneratorOptions(target, model, rate, clients, pacing, warmup, duration, mix,
+            userPrefix, userCount, password, outputDirectory, label, serverCores);
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            if (2 != parts.length) {
+                throw new IllegalArgumentException("Bad mix entry " + entry + ", expected operation=weight");
+            }
+            weights.put(Operation.fromName(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+
+        return weights;
+    }
+
+    private static Duration parseDuration(String value) {
+        String trimmed = value.trim().toLowerCase();
+        if (trimmed.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(trimmed.substring(0, trimmed.length() - 2)));
+        } else if (trimmed.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(trimmed.substring(0, trimmed.length() - 1)));
+        } else if (trimmed.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(trimmed.substring(0, trimmed.length() - 1)));
+        }
+
+        throw new IllegalArgumentException("Bad duration " + value + ", expected e.g. 500ms, 30s or 5m");
+    }
+}
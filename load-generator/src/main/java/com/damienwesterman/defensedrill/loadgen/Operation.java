@@ -0,0 +1,70 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.loadgen;
+
+/**
+ * Requests the load generator can issue, each one a separate latency histogram in the report.
+ */
+public enum Operation {
+    /** POST /authenticate for a random synthetic user. */
+    AUTHENTICATE("authenticate"),
+    /** POST /authenticate/user for a random synthetic user. */
+    AUTHENTICATE_ROLE("authenticate_role"),
+    /** Form POST /log_in for a random synthetic user, expects the 303 with the jwt cookie. */
+    LOG_IN("log_in"),
+    /** GET /user, the full user listing. */
+    LIST_USERS("list_users"),
+    /** Create, read, update and delete a throwaway user, timed as one cycle. */
+    CRUD("crud");
+
+    private final String name;
+
+    Operation(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Look up an operation by its name, as used in {@code --mix}.
+     *
+     * @param name Operation name
+     * @return Matching operation
+     * @throws IllegalArgumentException if there is no such operation
+     */
+    public static Operation fromName(String name) {
+        for (Operation operation : values()) {
+            if (operation.name.equalsIgnoreCase(name)) {
+                return operation;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown operation: " + name);
+    }
+}
@@ -0,0 +1,148 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.loadgen;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Issues the requests behind each {@link Operation} against a running instance. Users are picked at random
+ * from the synthetic users the perf profile seeds ({@code <prefix><7 digit number>}, numbered from 1).
+ */
+public class ServiceClient {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String JSON = "application/json";
+    private static final String FORM = "application/x-www-form-urlencoded";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LoadGeneratorOptions options;
+
+    public ServiceClient(LoadGeneratorOptions options) {
+        this.options = options;
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(REQUEST_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+    }
+
+    /**
+     * Run one operation.
+     *
+     * @param operation Operation to run
+     * @return true if every request of the operation got its expected response
+     * @throws InterruptedException if interrupted while waiting for a response
+     */
+    public boolean execute(Operation operation) throws InterruptedException {
+        try {
+            return switch (operation) {
+                case AUTHENTICATE -> 200 == send(post("/authenticate", JSON, loginJson())).statusCode();
+                case AUTHENTICATE_ROLE -> 200 == send(post("/authenticate/user", JSON, loginJson())).statusCode();
+                case LOG_IN -> 303 == send(post("/log_in", FORM, loginForm())).statusCode();
+                case LIST_USERS -> isSuccessful(send(request("/user").GET().build()));
+                case CRUD -> crud();
+            };
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private boolean crud() throws IOException, InterruptedException {
+        String username = "lg-" + UUID.randomUUID().toString().substring(0, 20);
+        HttpResponse<String> created = send(post("/user", JSON, userJson(username, List.of("USER"))));
+        if (201 != created.statusCode()) {
+            return false;
+        }
+
+        JsonNode user = objectMapper.readTree(created.body());
+        String path = "/user/id/" + user.get("id").asLong();
+        boolean ok = 200 == send(request(path).GET().build()).statusCode();
+        ok &= 200 == send(post(path, JSON, userJson(username, List.of("USER", "ADMIN")))).statusCode();
+        // Always clean up, even if the read or update failed
+        ok &= 204 == send(request(path).DELETE().build()).statusCode();
+
+        return ok;
+    }
+
+    private static boolean isSuccessful(HttpResponse<?> response) {
+        return 200 <= response.statusCode() && 300 > response.statusCode();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(options.target() + path))
+            .timeout(REQUEST_TIMEOUT);
+    }
+
+    private HttpRequest post(String path, String contentType, String body) {
+        return request(path)
+            .header("Content-Type", contentType)
+            .POST(BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private String loginJson() throws IOException {
+        return objectMapper.writeValueAsString(Map.of(
+            "username", randomUsername(),
+            "password", options.password()));
+    }
+
+    private String loginForm() {
+        return "username=" + URLEncoder.encode(randomUsername(), StandardCharsets.UTF_8)
+            + "&password=" + URLEncoder.encode(options.password(), StandardCharsets.UTF_8);
+    }
+
+    private String userJson(String username, List<String> roles) throws IOException {
+        return objectMapper.writeValueAsString(Map.of(
+            "username", username,
+            "password", options.password(),
+            "roles", roles));
+    }
+
+    private String randomUsername() {
+        int number = 1 + ThreadLocalRandom.current().nextInt(options.userCount());
+        return String.format("%s%07d", options.userPrefix(), number);
+    }
+}
@@ -0,0 +1,29 @@
+#!/bin/bash
+#
+# Compares two runs from a load generator summary.csv, e.g. the previous and the current release.
+#
+# Usage: compare.sh <summary.csv> <baseline label> <candidate label>
+#
+# Prints throughput and corrected p50/p99/p99.9 per operation for both labels with the relative change.
+# The full distributions are in the matching .hgrm files.
+#
+set -euo pipefail
+
+SUMMARY="${1:?Usage: $0 <summary.csv> <baseline label> <candidate label>}"
+BASELINE="${2:?Usage: $0 <summary.csv> <baseline label> <candidate label>}"
+CANDIDATE="${3:?Usage: $0 <summary.csv> <baseline label> <candidate label>}"
+
+awk -F, -v base="$BASELINE" -v cand="$CANDIDATE" '
+    function change(a, b) { return a == 0 ? "n/a" : sprintf("%+.1f%%", (b - a) * 100 / a) }
+    NR > 1 && $1 == base { key = $2 "," $3 "," $6; b_rps[key] = $9; b_p50[key] = $10; b_p99[key] = $12; b_p999[key] = $13 }
+    NR > 1 && $1 == cand { key = $2 "," $3 "," $6; c_rps[key] = $9; c_p50[key] = $10; c_p99[key] = $12; c_p999[key] = $13; order[++n] = key }
+    END {
+        printf "%-32s %12s %12s %12s %12s\n", "model,cores,operation", "rps", "p50 ms", "p99 ms", "p99.9 ms"
+        for (i = 1; i <= n; i++) {
+            key = order[i]
+            if (!(key in b_rps)) continue
+            printf "%-32s %12s %12s %12s %12s\n", key,
+                change(b_rps[key], c_rps[key]), change(b_p50[key], c_p50[key]),
+                change(b_p99[key], c_p99[key]), change(b_p999[key], c_p999[key])
+        }
+    }' "$SUMMARY"
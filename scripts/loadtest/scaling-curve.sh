@@ -0,0 +1,62 @@
+#!/bin/bash
+#
+# Throughput-vs-cores scaling curve. For every core count the service is started with the perf profile,
+# pinned to that many cores with taskset, and loaded by the load generator pinned to the remaining cores.
+# Every run is appended to <out>/summary.csv with its server_cores, the curve is printed at the end.
+#
+# Usage: scaling-curve.sh <service jar> <load generator jar> [core counts] [-- load generator options]
+#   e.g. scaling-curve.sh security/target/security-1.0.0.jar load-generator/target/load-generator-1.0.0.jar \
+#            1,2,4,8 -- --clients 64 --duration 60s --label 1.0.0
+#
+# Environment:
+#   PORT    port to start the service on, default 5555
+#   OUT     report directory, default load-results
+#   Anything the perf profile reads (PERF_DB_URL, PERF_USERS, ...)
+#
+set -euo pipefail
+
+SERVICE_JAR="${1:?Usage: $0 <service jar> <load generator jar> [core counts] [-- load generator options]}"
+LOADGEN_JAR="${2:?Usage: $0 <service jar> <load generator jar> [core counts] [-- load generator options]}"
+shift 2
+CORE_COUNTS="1,2,4"
+if [ $# -gt 0 ] && [ "$1" != "--" ]; then
+    CORE_COUNTS="$1"
+    shift
+fi
+[ $# -gt 0 ] && [ "$1" = "--" ] && shift
+
+PORT="${PORT:-5555}"
+OUT="${OUT:-load-results}"
+TOTAL_CORES=$(nproc)
+PID=""
+trap '[ -n "$PID" ] && kill "$PID" 2>/dev/null || true' EXIT
+
+for CORES in ${CORE_COUNTS//,/ }; do
+    if [ "$CORES" -ge "$TOTAL_CORES" ]; then
+        echo "Skipping $CORES cores, at least one core has to be left for the load generator" >&2
+        continue
+    fi
+
+    taskset -c "0-$((CORES - 1))" java -XX:ActiveProcessorCount="$CORES" -jar "$SERVICE_JAR" \
+        --spring.profiles.active=perf --server.port="$PORT" > "service-$CORES-cores.log" 2>&1 &
+    PID=$!
+
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/login")" = "200" ]; do
+        if ! kill -0 "$PID" 2>/dev/null; then
+            echo "Service failed to start on $CORES cores, see service-$CORES-cores.log" >&2
+            exit 1
+        fi
+        sleep 0.5
+    done
+
+    taskset -c "$CORES-$((TOTAL_CORES - 1))" java -jar "$LOADGEN_JAR" \
+        --target "http://localhost:$PORT" --out "$OUT" --server-cores "$CORES" "$@"
+
+    kill "$PID"
+    wait "$PID" 2>/dev/null || true
+    PID=""
+done
+
+echo
+echo "label,model,server_cores,throughput_rps,p99_ms"
+awk -F, '$6 == "total" { print $1 "," $2 "," $3 "," $9 "," $12 }' "$OUT/summary.csv"
@@ -0,0 +1,33 @@
+#!/bin/bash
+#
+# Builds an AppCDS archive for the AOT processed application jar.
+#
+# Usage: build-cds-archive.sh <application jar> [output directory]
+#
+# The jar is extracted into the output directory (CDS only works with a classpath of plain jars, not the
+# nested boot jar) and the application is started once with -Dspring.context.exit=onRefresh, so every class
+# loaded up to a refreshed context ends up in the archive without ever serving traffic or registering with
+# eureka. The training run needs the same environment as a real start (config server, database, vault).
+# Extra JVM options for the training run can be given with TRAINING_JAVA_OPTS.
+#
+set -euo pipefail
+
+JAR="${1:?Usage: $0 <application jar> [output directory]}"
+OUT_DIR="${2:-$(dirname "$JAR")/cds}"
+JAR_NAME="$(basename "$JAR")"
+
+rm -rf "$OUT_DIR"
+java -Djarmode=tools -jar "$JAR" extract --destination "$OUT_DIR"
+
+cd "$OUT_DIR"
+# shellcheck disable=SC2086
+java -XX:ArchiveClassesAtExit=application.jsa \
+    -Dspring.context.exit=onRefresh \
+    -Dspring.aot.enabled=true \
+    ${TRAINING_JAVA_OPTS:-} \
+    -jar "$JAR_NAME" \
+    --spring.profiles.active="${SPRING_PROFILES_ACTIVE:-prod}" \
+    --spring.cloud.refresh.enabled=false
+
+echo "Start with: java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar $OUT_DIR/$JAR_NAME" \
+    "--spring.cloud.refresh.enabled=false"
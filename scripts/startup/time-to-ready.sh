@@ -0,0 +1,85 @@
+#!/bin/bash
+#
+# Measures cold start as the time from launching the JVM until the first successful POST /authenticate,
+# which covers config server, vault, flyway, hibernate and the first real login rather than just "Started".
+#
+# Usage: time-to-ready.sh <application jar> [runs]
+#
+# Environment:
+#   MODE            plain | aot | cds (cds implies aot, expects application.jsa next to the jar), default plain
+#   PORT            port to start the instance on, default 5555
+#   USERNAME        user to authenticate as, default the seeded adminadmin
+#   PASSWORD        password for USERNAME, default adminadmin
+#   JAVA_OPTS       extra JVM options
+#   TIMEOUT_SECONDS give up on a run after this long, default 180
+#
+# Prints one CSV line (mode,run,millis) per run followed by the min/median/max.
+#
+set -euo pipefail
+
+JAR="${1:?Usage: $0 <application jar> [runs]}"
+RUNS="${2:-5}"
+MODE="${MODE:-plain}"
+PORT="${PORT:-5555}"
+USERNAME="${USERNAME:-adminadmin}"
+PASSWORD="${PASSWORD:-adminadmin}"
+TIMEOUT_SECONDS="${TIMEOUT_SECONDS:-180}"
+
+JVM_ARGS=()
+APP_ARGS=("--server.port=$PORT")
+case "$MODE" in
+    plain) ;;
+    aot)
+        JVM_ARGS+=("-Dspring.aot.enabled=true")
+        APP_ARGS+=("--spring.cloud.refresh.enabled=false")
+        ;;
+    cds)
+        JVM_ARGS+=("-XX:SharedArchiveFile=$(dirname "$JAR")/application.jsa" "-Dspring.aot.enabled=true")
+        APP_ARGS+=("--spring.cloud.refresh.enabled=false")
+        ;;
+    *)
+        echo "Unknown MODE $MODE, expected plain, aot or cds" >&2
+        exit 1
+        ;;
+esac
+
+BODY="{\"username\":\"$USERNAME\",\"password\":\"$PASSWORD\"}"
+RESULTS=()
+PID=""
+trap '[ -n "$PID" ] && kill "$PID" 2>/dev/null || true' EXIT
+
+echo "mode,run,millis"
+for RUN in $(seq 1 "$RUNS"); do
+    START=$(date +%s%N)
+    # shellcheck disable=SC2086
+    java "${JVM_ARGS[@]}" ${JAVA_OPTS:-} -jar "$JAR" "${APP_ARGS[@]}" > "time-to-ready-$MODE-$RUN.log" 2>&1 &
+    PID=$!
+
+    READY=""
+    while [ $(( ($(date +%s%N) - START) / 1000000000 )) -lt "$TIMEOUT_SECONDS" ]; do
+        STATUS=$(curl -s -o /dev/null -w '%{http_code}' -H 'Content-Type: application/json' \
+            -d "$BODY" "http://localhost:$PORT/authenticate" || true)
+        if [ "$STATUS" = "200" ]; then
+            READY=$(( ($(date +%s%N) - START) / 1000000 ))
+            break
+        fi
+        if ! kill -0 "$PID" 2>/dev/null; then
+            break
+        fi
+        sleep 0.05
+    done
+
+    kill "$PID" 2>/dev/null || true
+    wait "$PID" 2>/dev/null || true
+    PID=""
+
+    if [ -z "$READY" ]; then
+        echo "Run $RUN never authenticated, see time-to-ready-$MODE-$RUN.log" >&2
+        exit 1
+    fi
+    echo "$MODE,$RUN,$READY"
+    RESULTS+=("$READY")
+done
+
+SORTED=($(printf '%s\n' "${RESULTS[@]}" | sort -n))
+echo "# $MODE min=${SORTED[0]}ms median=${SORTED[$(( ${#SORTED[@]} / 2 ))]}ms max=${SORTED[-1]}ms"
@@ -0,0 +1,205 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.client;
+
+import java.io.IOException;
+import java.lang.System.Logger.Level;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link PublicKeySource} that downloads the public key from the security service's
+ * {@code GET /public-key} endpoint and keeps it fresh in the background, so a key rotation is picked up
+ * without restarting the consuming service.
+ * <br><br>
+ * Failed fetches back off exponentially and keep the last good key. When a signature is rejected the key
+ * is fetched again right away, at most once per {@code minRefetchInterval}, since a rejected signature is
+ * the first sign of a rotation.
+ * <br><br>
+ * Until the first key arrives, {@link #getPublicKey()} waits at most until {@code initialWait} after
+ * construction. Once that has passed it fails straight away, so callers are never held up again by a
+ * security service that is down.
+ */
+public class PublicKeyFetcher implements PublicKeySource, AutoCloseable {
+    private static final System.Logger log = System.getLogger(PublicKeyFetcher.class.getName());
+
+    public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofMinutes(5);
+    public static final Duration DEFAULT_MIN_REFETCH_INTERVAL = Duration.ofSeconds(30);
+    public static final Duration DEFAULT_INITIAL_WAIT = Duration.ofSeconds(10);
+    private static final Duration MIN_RETRY_INTERVAL = Duration.ofSeconds(1);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+    private final URI publicKeyUri;
+    private final Duration refreshInterval;
+    private final Duration minRefetchInterval;
+    /** {@link System#nanoTime()} after which nobody waits for the first key anymore. */
+    private final long initialDeadlineNanos;
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService executor;
+    private final CompletableFuture<PublicKey> firstKey = new CompletableFuture<>();
+    private final AtomicLong lastRefetchNanos = new AtomicLong(System.nanoTime());
+
+    private volatile PublicKey currentKey = null;
+    private volatile String currentEncodedKey = null;
+    private int consecutiveFailures = 0;
+
+    /**
+     * Create a fetcher with the default intervals and start fetching right away.
+     *
+     * @param securityServiceUri Base URI of the security service, e.g. http://security:5555
+     */
+    public PublicKeyFetcher(URI securityServiceUri) {
+        this(securityServiceUri, DEFAULT_REFRESH_INTERVAL, DEFAULT_MIN_REFETCH_INTERVAL, DEFAULT_INITIAL_WAIT);
+    }
+
+    /**
+     * Create a fetcher and start fetching right away.
+     *
+     * @param securityServiceUri Base URI of the security service, e.g. http://security:5555
+     * @param refreshInterval How often to check for a new key
+     * @param minRefetchInterval Minimum time between early fetches triggered by rejected signatures
+     * @param initialWait How long after construction {@link #getPublicKey()} may wait for the very first key
+     */
+    public PublicKeyFetcher(URI securityServiceUri, Duration refreshInterval, Duration minRefetchInterval,
+            Duration initialWait) {
+        this.publicKeyUri = Objects.requireNonNull(securityServiceUri, "securityServiceUri")
+            .resolve("/public-key");
+        this.refreshInterval = Objects.requireNonNull(refreshInterval, "refreshInterval");
+        this.minRefetchInterval = Objects.requireNonNull(minRefetchInterval, "minRefetchInterval");
+        this.initialDeadlineNanos = System.nanoTime() + Objects.requireNonNull(initialWait, "initialWait").toNanos();
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "defensedrill-public-key-fetcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.execute(this::refresh);
+    }
+
+    @Override
+    public PublicKey getPublicKey() {
+        PublicKey key = currentKey;
+        if (null != key) {
+            return key;
+        }
+
+        long waitNanos = initialDeadlineNanos - System.nanoTime();
+        if (waitNanos <= 0) {
+            throw new IllegalStateException("No public key available from " + publicKeyUri);
+        }
+
+        try {
+            return firstKey.get(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for public key", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("No public key available from " + publicKeyUri, e);
+        }
+    }
+
+    @Override
+    public void onKeyRejected() {
+        long now = System.nanoTime();
+        long last = lastRefetchNanos.get();
+        if (now - last >= minRefetchInterval.toNanos() && lastRefetchNanos.compareAndSet(last, now)) {
+            executor.execute(this::fetch);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void refresh() {
+        Duration nextRefresh = fetch() ? refreshInterval : retryInterval(consecutiveFailures, refreshInterval);
+
+        if (!executor.isShutdown()) {
+            executor.schedule(this::refresh, nextRefresh.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Runs on the executor thread only.
+     *
+     * @return true if the fetch succeeded
+     */
+    private boolean fetch() {
+        try {
+            HttpResponse<String> response = httpClient.send(
+                HttpRequest.newBuilder(publicKeyUri).timeout(REQUEST_TIMEOUT).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+            );
+            if (200 != response.statusCode()) {
+                throw new IOException("Unexpected status " + response.statusCode());
+            }
+
+            String encodedKey = response.body().trim();
+            if (!encodedKey.equals(currentEncodedKey)) {
+                PublicKey key = PublicKeys.parse(encodedKey);
+                currentKey = key;
+                currentEncodedKey = encodedKey;
+                firstKey.complete(key);
+                log.log(Level.INFO, "Loaded DefenseDrill public key from {0}", publicKeyUri);
+            }
+            consecutiveFailures = 0;
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalArgumentException e) {
+            consecutiveFailures++;
+            // Keep serving whatever we had last, it is still the best we have
+            log.log(Level.WARNING, "Failed to fetch DefenseDrill public key from {0} (attempt {1}): {2}",
+                publicKeyUri, consecutiveFailures, e.getMessage());
+        }
+
+        return false;
+    }
+
+    /**
+     * Backoff after failed fetches, doubling from one second up to the refresh interval.
+     */
+    static Duration retryInterval(int consecutiveFailures, Duration refreshInterval) {
+        Duration backoff = MIN_RETRY_INTERVAL.multipliedBy(1L << Math.max(0, Math.min(consecutiveFailures - 1, 20)));
+        return backoff.compareTo(refreshInterval) > 0 ? refreshInterval : backoff;
+    }
+}
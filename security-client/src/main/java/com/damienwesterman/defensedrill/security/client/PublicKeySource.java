@@ -0,0 +1,49 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.client;
+
+import java.security.PublicKey;
+
+/**
+ * Source of the public key JWTs are verified with.
+ */
+@FunctionalInterface
+public interface PublicKeySource {
+    /**
+     * Get the current public key.
+     *
+     * @return Public key
+     * @throws IllegalStateException If no key is available (yet)
+     */
+    PublicKey getPublicKey();
+
+    /**
+     * Called by {@link TokenVerifier} when a signature did not match the current key, which may mean the
+     * key has been rotated. Sources that can refresh should consider doing so early.
+     */
+    default void onKeyRejected() { }
+}
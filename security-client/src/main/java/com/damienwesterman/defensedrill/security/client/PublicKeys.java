@@ -0,0 +1,57 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.client;
+
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+/**
+ * Helpers for the public key format DefenseDrill Security publishes: a base64 encoded X.509 RSA key.
+ */
+public final class PublicKeys {
+    private PublicKeys() { }
+
+    /**
+     * Parse an encoded public key.
+     *
+     * @param encodedKey Base64 encoded X.509 RSA public key
+     * @return Public key
+     * @throws IllegalArgumentException If the key cannot be parsed
+     */
+    public static PublicKey parse(String encodedKey) {
+        try {
+            byte[] decodedKey = Base64.getDecoder().decode(encodedKey.trim());
+            return KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(decodedKey));
+        } catch (InvalidKeySpecException | NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Invalid public key", e);
+        }
+    }
+}
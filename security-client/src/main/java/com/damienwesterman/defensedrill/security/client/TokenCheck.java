@@ -0,0 +1,47 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.client;
+
+/**
+ * Result of {@link TokenVerifier#check(String)}: either the verified token or why it was rejected.
+ *
+ * @param token Verified token, null if rejected
+ * @param rejection Why the token was rejected, null if verified
+ */
+public record TokenCheck(VerifiedToken token, TokenRejection rejection) {
+    public static TokenCheck verified(VerifiedToken token) {
+        return new TokenCheck(token, null);
+    }
+
+    public static TokenCheck rejected(TokenRejection rejection) {
+        return new TokenCheck(null, rejection);
+    }
+
+    public boolean isVerified() {
+        return null != token;
+    }
+}
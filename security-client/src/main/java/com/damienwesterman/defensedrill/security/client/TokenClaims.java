@@ -0,0 +1,85 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.client;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Names and formats of the claims in a DefenseDrill JWT, shared by the service that issues them and
+ * every service that verifies them.
+ */
+public final class TokenClaims {
+    /** Value of the standard iss claim. */
+    public static final String ISSUER = "DefenseDrillWeb";
+    /** Claim holding the granted roles, e.g. "ROLE_USER,ROLE_ADMIN". */
+    public static final String ROLES = "roles";
+    /** Claim holding the user's token epoch, bumped whenever the user is changed. */
+    public static final String TOKEN_EPOCH = "epoch";
+    public static final String ROLE_PREFIX = "ROLE_";
+    public static final String ROLE_DELIMITER = ",";
+
+    private TokenClaims() { }
+
+    /**
+     * Decode the roles claim. The claim lists every granted role, including the ones implied by the role
+     * hierarchy, each with the {@value #ROLE_PREFIX} prefix.
+     *
+     * @param claim Value of the roles claim, may be null
+     * @return Unmodifiable set of roles, empty if the claim is missing or names an unknown role
+     */
+    public static Set<UserRoles> decodeRoles(String claim) {
+        if (null == claim || claim.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        EnumSet<UserRoles> roles = EnumSet.noneOf(UserRoles.class);
+        int start = 0;
+        while (start <= claim.length()) {
+            int end = claim.indexOf(ROLE_DELIMITER, start);
+            if (-1 == end) {
+                end = claim.length();
+            }
+
+            String name = claim.substring(start, end).trim();
+            if (name.startsWith(ROLE_PREFIX)) {
+                name = name.substring(ROLE_PREFIX.length());
+            }
+            UserRoles role = UserRoles.fromStringRepresentation(name);
+            if (null == role) {
+                // A token naming roles we do not know about grants nothing
+                return Collections.emptySet();
+            }
+            roles.add(role);
+
+            start = end + ROLE_DELIMITER.length();
+        }
+
+        return Collections.unmodifiableSet(roles);
+    }
+}
@@ -0,0 +1,166 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Cheap structural checks run before the signature check, so garbage and expired tokens are turned away
+ * without an RSA verification or an exception.
+ * <br><br>
+ * Only reports what it is sure of: anything it cannot make sense of is left for the full verification,
+ * which stays the authority on whether a token is valid. The header and payload are scanned for the
+ * {@code alg} and {@code exp} fields rather than parsed as JSON, which is enough for the compact JSON jjwt
+ * writes.
+ */
+final class TokenPrecheck {
+    private static final Set<String> SUPPORTED_ALGORITHMS = Set.of("RS256", "RS384", "RS512");
+
+    private TokenPrecheck() { }
+
+    /**
+     * Check a token's structure, algorithm and expiration.
+     *
+     * @param jwt String JWT, may be null
+     * @param nowMillis Current time
+     * @return Why the token must be rejected, null if it should go on to full verification
+     */
+    static TokenRejection check(String jwt, long nowMillis) {
+        if (null == jwt || jwt.isBlank()) {
+            return TokenRejection.BLANK;
+        }
+
+        int headerEnd = jwt.indexOf('.');
+        int payloadEnd = -1 == headerEnd ? -1 : jwt.indexOf('.', headerEnd + 1);
+        if (-1 == payloadEnd || -1 != jwt.indexOf('.', payloadEnd + 1)
+                || !isBase64Url(jwt, 0, headerEnd)
+                || !isBase64Url(jwt, headerEnd + 1, payloadEnd)
+                || !isBase64Url(jwt, payloadEnd + 1, jwt.length())) {
+            return TokenRejection.MALFORMED;
+        }
+
+        String header = decode(jwt, 0, headerEnd);
+        String algorithm = stringField(header, "alg");
+        if (null == algorithm) {
+            return TokenRejection.MALFORMED;
+        } else if (!SUPPORTED_ALGORITHMS.contains(algorithm)) {
+            return TokenRejection.UNSUPPORTED_ALGORITHM;
+        }
+
+        // Compared in seconds, an exp far in the future would overflow in millis
+        long expiration = numberField(decode(jwt, headerEnd + 1, payloadEnd), "exp");
+        if (-1 != expiration && expiration < nowMillis / 1000) {
+            return TokenRejection.EXPIRED;
+        }
+
+        return null;
+    }
+
+    /**
+     * A non empty run of base64url characters, without padding, of a length base64 can produce.
+     */
+    private static boolean isBase64Url(String value, int start, int end) {
+        int length = end - start;
+        if (0 == length || 1 == length % 4) {
+            return false;
+        }
+
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || '-' == c || '_' == c)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static String decode(String value, int start, int end) {
+        // Already validated, so this cannot throw
+        return new String(Base64.getUrlDecoder().decode(value.substring(start, end)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return Index of the first non whitespace character after the colon following the field name, -1 if
+     * the field is not there. The name showing up as a string value (e.g. {@code "sub":"exp"}) is skipped.
+     */
+    private static int valueStart(String json, String field) {
+        String name = "\"" + field + "\"";
+        for (int found = json.indexOf(name); -1 != found; found = json.indexOf(name, found + 1)) {
+            int index = skipWhitespace(json, found + name.length());
+            if (index < json.length() && ':' == json.charAt(index)) {
+                return skipWhitespace(json, index + 1);
+            }
+        }
+
+        return -1;
+    }
+
+    private static int skipWhitespace(String json, int index) {
+        while (index < json.length() && Character.isWhitespace(json.charAt(index))) {
+            index++;
+        }
+
+        return index;
+    }
+
+    private static String stringField(String json, String field) {
+        int start = valueStart(json, field);
+        if (-1 == start || start >= json.length() || '"' != json.charAt(start)) {
+            return null;
+        }
+
+        int end = json.indexOf('"', start + 1);
+        return -1 == end ? null : json.substring(start + 1, end);
+    }
+
+    /**
+     * @return Non negative integer value of the field, -1 if it is missing or not a plain integer
+     */
+    private static long numberField(String json, String field) {
+        int start = valueStart(json, field);
+        if (-1 == start) {
+            return -1;
+        }
+
+        long value = 0;
+        int index = start;
+        while (index < json.length() && Character.isDigit(json.charAt(index)) && index - start < 18) {
+            value = value * 10 + (json.charAt(index) - '0');
+            index++;
+        }
+        if (index == start || (index < json.length() && ('.' == json.charAt(index) || 'e' == json.charAt(index)
+                || 'E' == json.charAt(index) || Character.isDigit(json.charAt(index))))) {
+            return -1;
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,45 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.client;
+
+/**
+ * Why a token was not accepted by {@link TokenVerifier#check(String)}.
+ */
+public enum TokenRejection {
+    /** Null or blank. */
+    BLANK,
+    /** Not three base64url segments, or a header that cannot be read. */
+    MALFORMED,
+    /** Signed with an algorithm DefenseDrill never uses. */
+    UNSUPPORTED_ALGORITHM,
+    /** Past its expiration. */
+    EXPIRED,
+    /** Signature does not match the public key. */
+    INVALID_SIGNATURE,
+    /** Rejected for any other reason, e.g. wrong issuer or missing subject. */
+    INVALID
+}
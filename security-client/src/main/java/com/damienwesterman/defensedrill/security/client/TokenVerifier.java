@@ -0,0 +1,152 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.client;
+
+import java.security.PublicKey;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Objects;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+
+/**
+ * Verifies DefenseDrill JWTs locally, without a round trip to the security service. Checks the
+ * signature against the key from a {@link PublicKeySource}, the issuer, and the expiration.
+ * <br><br>
+ * Thread safe. The parser is built once per public key and reused until the key changes.
+ */
+public class TokenVerifier {
+    private final PublicKeySource keySource;
+
+    private volatile KeyedParser keyedParser = null;
+
+    private record KeyedParser(PublicKey key, JwtParser parser) { }
+
+    public TokenVerifier(PublicKeySource keySource) {
+        this.keySource = Objects.requireNonNull(keySource, "keySource");
+    }
+
+    /**
+     * Verify a JWT.
+     *
+     * @param jwt String JWT
+     * @return Verified contents of the token
+     * @throws JwtException If the token is malformed, expired, not signed by the current key, or not
+     * issued by DefenseDrill
+     * @throws IllegalArgumentException If the token is null or blank
+     * @throws IllegalStateException If the key source has no key yet
+     */
+    public VerifiedToken verify(String jwt) {
+        if (null == jwt || jwt.isBlank()) {
+            throw new IllegalArgumentException("JWT is blank");
+        }
+
+        Claims claims;
+        try {
+            claims = getParser().parseSignedClaims(jwt).getPayload();
+        } catch (SignatureException e) {
+            keySource.onKeyRejected();
+            throw e;
+        }
+
+        if (null == claims.getSubject() || claims.getSubject().isEmpty()) {
+            throw new JwtException("JWT has no subject");
+        }
+
+        return new VerifiedToken(
+            claims.getSubject(),
+            TokenClaims.decodeRoles(claims.get(TokenClaims.ROLES, String.class)),
+            toInstant(claims.getIssuedAt()),
+            toInstant(claims.getExpiration()),
+            claims.get(TokenClaims.TOKEN_EPOCH, Long.class)
+        );
+    }
+
+    /**
+     * Check a JWT without throwing. Structurally invalid, foreign and expired tokens are rejected by cheap
+     * prechecks before any signature is checked, only tokens that look genuine pay for the RSA verification.
+     *
+     * @param jwt String JWT, may be null
+     * @return Verified token, or why it was rejected
+     * @throws IllegalStateException If the key source has no key yet
+     */
+    public TokenCheck check(String jwt) {
+        TokenRejection rejection = TokenPrecheck.check(jwt, System.currentTimeMillis());
+        if (null != rejection) {
+            return TokenCheck.rejected(rejection);
+        }
+
+        try {
+            return TokenCheck.verified(verify(jwt));
+        } catch (ExpiredJwtException e) {
+            return TokenCheck.rejected(TokenRejection.EXPIRED);
+        } catch (SignatureException e) {
+            return TokenCheck.rejected(TokenRejection.INVALID_SIGNATURE);
+        } catch (MalformedJwtException e) {
+            return TokenCheck.rejected(TokenRejection.MALFORMED);
+        } catch (JwtException | IllegalArgumentException e) {
+            return TokenCheck.rejected(TokenRejection.INVALID);
+        }
+    }
+
+    /**
+     * Verify a JWT, swallowing the reason it is not valid.
+     *
+     * @param jwt String JWT, may be null
+     * @return Verified contents of the token, null if it is not valid
+     */
+    public VerifiedToken verifyOrNull(String jwt) {
+        return check(jwt).token();
+    }
+
+    private JwtParser getParser() {
+        PublicKey key = keySource.getPublicKey();
+        KeyedParser current = keyedParser;
+        if (null == current || !current.key().equals(key)) {
+            current = new KeyedParser(
+                key,
+                Jwts.parser()
+                    .verifyWith(key)
+                    .requireIssuer(TokenClaims.ISSUER)
+                    .build()
+            );
+            keyedParser = current;
+        }
+
+        return current.parser();
+    }
+
+    private static Instant toInstant(Date date) {
+        return null == date ? null : date.toInstant();
+    }
+}
@@ -0,0 +1,75 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.client;
+
+import java.util.List;
+
+/**
+ * Roles a DefenseDrill user can be granted.
+ */
+public enum UserRoles {
+    USER("USER"),
+    /** Admins are implicitly users as well. */
+    ADMIN("ADMIN", USER);
+
+    private String roleString;
+    private UserRoles[] impliedRoles;
+
+    UserRoles(String roleString, UserRoles... impliedRoles) {
+        this.roleString = roleString;
+        this.impliedRoles = impliedRoles;
+    }
+
+    public String getStringRepresentation() {
+        return this.roleString;
+    }
+
+    /**
+     * Roles that are granted along with this one by the role hierarchy, not including itself.
+     *
+     * @return Implied roles
+     */
+    public List<UserRoles> getImpliedRoles() {
+        return List.of(this.impliedRoles);
+    }
+
+    /**
+     * Look up a role by its string representation, ignoring case.
+     *
+     * @param roleString String representation of the role, may be null
+     * @return Matching role, or null if there is none
+     */
+    public static UserRoles fromStringRepresentation(String roleString) {
+        for (UserRoles role : values()) {
+            if (role.roleString.equalsIgnoreCase(roleString)) {
+                return role;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.client;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Contents of a JWT whose signature, issuer and expiration have been checked by {@link TokenVerifier}.
+ *
+ * @param username Subject of the token
+ * @param roles Roles granted by the token, already including the ones implied by the role hierarchy
+ * @param issuedAt When the token was issued
+ * @param expiresAt When the token expires
+ * @param tokenEpoch User's token epoch when the token was issued, null for tokens issued before epochs
+ * existed. Only the security service knows the current epochs, it rejects tokens from an older epoch and
+ * tokens without one (see {@code POST /token/introspect}).
+ */
+public record VerifiedToken(String username, Set<UserRoles> roles, Instant issuedAt, Instant expiresAt,
+        Long tokenEpoch) {
+    /**
+     * Check if the token grants a role, directly or through the role hierarchy.
+     *
+     * @param role Role to check
+     * @return true if the role is granted
+     */
+    public boolean grants(UserRoles role) {
+        if (roles.contains(role)) {
+            return true;
+        }
+
+        for (UserRoles granted : roles) {
+            if (granted.getImpliedRoles().contains(role)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
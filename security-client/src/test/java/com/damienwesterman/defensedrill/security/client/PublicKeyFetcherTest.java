@@ -0,0 +1,182 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.jsonwebtoken.Jwts;
+
+public class PublicKeyFetcherTest {
+    private static final Duration LONG = Duration.ofMinutes(5);
+
+    static KeyPair firstPair;
+    static KeyPair secondPair;
+
+    HttpServer server;
+    AtomicReference<KeyPair> servedPair = new AtomicReference<>();
+    AtomicInteger requests = new AtomicInteger();
+    volatile int status = 200;
+    PublicKeyFetcher fetcher;
+
+    @BeforeAll
+    public static void generateKeys() {
+        firstPair = Jwts.SIG.RS256.keyPair().build();
+        secondPair = Jwts.SIG.RS256.keyPair().build();
+    }
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        servedPair.set(firstPair);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/public-key", exchange -> {
+            requests.incrementAndGet();
+            byte[] body = Base64.getEncoder().encodeToString(servedPair.get().getPublic().getEncoded())
+                .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stop() {
+        if (null != fetcher) {
+            fetcher.close();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    public void test_getPublicKey_waitsForFirstFetch() {
+        fetcher = new PublicKeyFetcher(serverUri(), LONG, LONG, Duration.ofSeconds(10));
+
+        assertEquals(firstPair.getPublic(), fetcher.getPublicKey());
+    }
+
+    @Test
+    public void test_getPublicKey_failsFast_onceInitialWaitHasPassed() {
+        status = 503;
+        fetcher = new PublicKeyFetcher(serverUri(), LONG, LONG, Duration.ofMillis(200));
+
+        assertThrows(IllegalStateException.class, fetcher::getPublicKey);
+
+        // Later calls must not wait again
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            assertThrows(IllegalStateException.class, fetcher::getPublicKey);
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void test_onKeyRejected_refetchesRotatedKey() throws InterruptedException {
+        fetcher = new PublicKeyFetcher(serverUri(), LONG, Duration.ZERO, Duration.ofSeconds(10));
+        assertEquals(firstPair.getPublic(), fetcher.getPublicKey());
+
+        servedPair.set(secondPair);
+        fetcher.onKeyRejected();
+
+        PublicKey expected = secondPair.getPublic();
+        awaitCondition(() -> expected.equals(fetcher.getPublicKey()));
+    }
+
+    @Test
+    public void test_onKeyRejected_isRateLimited() throws InterruptedException {
+        fetcher = new PublicKeyFetcher(serverUri(), LONG, LONG, Duration.ofSeconds(10));
+        fetcher.getPublicKey();
+        int before = requests.get();
+
+        for (int i = 0; i < 50; i++) {
+            fetcher.onKeyRejected();
+        }
+        Thread.sleep(200);
+
+        assertEquals(before, requests.get());
+    }
+
+    @Test
+    public void test_failedFetch_keepsLastGoodKey() throws InterruptedException {
+        // Refresh often so several fetches fail while we watch
+        fetcher = new PublicKeyFetcher(serverUri(), Duration.ofMillis(20), LONG, Duration.ofSeconds(10));
+        assertEquals(firstPair.getPublic(), fetcher.getPublicKey());
+
+        status = 500;
+        int before = requests.get();
+        awaitCondition(() -> requests.get() > before);
+
+        assertEquals(firstPair.getPublic(), fetcher.getPublicKey());
+    }
+
+    @Test
+    public void test_retryInterval_doublesUpToRefreshInterval() {
+        Duration refresh = Duration.ofSeconds(30);
+
+        assertEquals(Duration.ofSeconds(1), PublicKeyFetcher.retryInterval(1, refresh));
+        assertEquals(Duration.ofSeconds(2), PublicKeyFetcher.retryInterval(2, refresh));
+        assertEquals(Duration.ofSeconds(16), PublicKeyFetcher.retryInterval(5, refresh));
+        assertEquals(refresh, PublicKeyFetcher.retryInterval(6, refresh));
+        assertEquals(refresh, PublicKeyFetcher.retryInterval(10_000, refresh));
+    }
+
+    private URI serverUri() {
+        return URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+}
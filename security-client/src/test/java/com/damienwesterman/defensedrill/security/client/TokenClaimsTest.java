@@ -0,0 +1,63 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class TokenClaimsTest {
+    @Test
+    public void test_decodeRoles_readsPrefixedAndPlainRoles() {
+        assertEquals(EnumSet.of(UserRoles.USER, UserRoles.ADMIN), TokenClaims.decodeRoles("ROLE_USER,ROLE_ADMIN"));
+        assertEquals(EnumSet.of(UserRoles.USER), TokenClaims.decodeRoles("USER"));
+        assertEquals(EnumSet.of(UserRoles.ADMIN), TokenClaims.decodeRoles(" ROLE_ADMIN , ADMIN "));
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = { "ROLE_OWNER", "ROLE_USER,ROLE_OWNER", "ROLE_USER,", ",ROLE_USER", "ROLE_USER,,ROLE_ADMIN",
+        "ROLE_" })
+    public void test_decodeRoles_grantsNothing_forMissingOrUnknownRoles(String claim) {
+        assertTrue(TokenClaims.decodeRoles(claim).isEmpty());
+    }
+
+    @Test
+    public void test_decodeRoles_isUnmodifiable() {
+        Set<UserRoles> roles = TokenClaims.decodeRoles("ROLE_USER");
+
+        assertThrows(UnsupportedOperationException.class, () -> roles.add(UserRoles.ADMIN));
+    }
+}
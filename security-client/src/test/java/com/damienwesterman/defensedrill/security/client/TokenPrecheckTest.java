@@ -0,0 +1,215 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+
+public class TokenPrecheckTest {
+    static final long NOW_MILLIS = 1_750_000_000_000L;
+    static final String PAST = Long.toString(NOW_MILLIS / 1000 - 60);
+    static final String FUTURE = Long.toString(NOW_MILLIS / 1000 + 60);
+    static final String RS256 = "{\"alg\":\"RS256\"}";
+    static final String SIGNATURE = "c2lnbmF0dXJl";
+
+    static KeyPair keyPair;
+
+    @BeforeAll
+    public static void generateKeys() {
+        keyPair = Jwts.SIG.RS256.keyPair().build();
+    }
+
+    static Stream<Arguments> blankTokens() {
+        return Stream.of(
+            Arguments.of((String) null),
+            Arguments.of(""),
+            Arguments.of("   "),
+            Arguments.of("\n\t")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("blankTokens")
+    public void test_check_rejectsBlankTokens(String jwt) {
+        assertEquals(TokenRejection.BLANK, TokenPrecheck.check(jwt, NOW_MILLIS));
+    }
+
+    static Stream<Arguments> malformedTokens() {
+        String header = encode(RS256);
+        String payload = encode("{\"exp\":" + FUTURE + "}");
+        String valid = header + "." + payload + "." + SIGNATURE;
+        return Stream.of(
+            // Segment count
+            Arguments.of("one segment", header),
+            Arguments.of("two segments", header + "." + payload),
+            Arguments.of("four segments", valid + "." + SIGNATURE),
+            Arguments.of("only dots", ".."),
+            Arguments.of("empty header", "." + payload + "." + SIGNATURE),
+            Arguments.of("empty payload", header + ".." + SIGNATURE),
+            Arguments.of("empty signature", header + "." + payload + "."),
+            // Alphabet and padding
+            Arguments.of("padding", header + "." + payload + "." + SIGNATURE + "=="),
+            Arguments.of("padded header", header + "=." + payload + "." + SIGNATURE),
+            Arguments.of("standard base64 plus", header + "." + payload + ".ab+d"),
+            Arguments.of("standard base64 slash", header + "." + payload + ".ab/d"),
+            Arguments.of("impossible length", header + "." + payload + ".abcde"),
+            Arguments.of("non ascii", header + "." + payload + ".abcé"),
+            // Whitespace
+            Arguments.of("leading space", " " + valid),
+            Arguments.of("trailing newline", valid + "\n"),
+            Arguments.of("space inside", header + ". " + payload + "." + SIGNATURE),
+            Arguments.of("tab inside", header + "." + payload + "\t." + SIGNATURE),
+            // Algorithm
+            Arguments.of("missing alg", token("{\"typ\":\"JWT\"}", "{}")),
+            Arguments.of("numeric alg", token("{\"alg\":256}", "{}")),
+            Arguments.of("null alg", token("{\"alg\":null}", "{}")),
+            Arguments.of("unterminated alg", token("{\"alg\":\"RS256}", "{}")),
+            Arguments.of("alg none, unsigned", encode("{\"alg\":\"none\"}") + "." + payload + "."),
+            Arguments.of("header not json", token("RS256", "{}"))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("malformedTokens")
+    public void test_check_rejectsMalformedTokens(String description, String jwt) {
+        assertEquals(TokenRejection.MALFORMED, TokenPrecheck.check(jwt, NOW_MILLIS));
+    }
+
+    static Stream<Arguments> unsupportedAlgorithms() {
+        return Stream.of(
+            Arguments.of("none"),
+            Arguments.of("None"),
+            Arguments.of("HS256"),
+            Arguments.of("ES256"),
+            Arguments.of("PS256"),
+            Arguments.of("rs256"),
+            Arguments.of("RS256 "),
+            Arguments.of("")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("unsupportedAlgorithms")
+    public void test_check_rejectsUnsupportedAlgorithms(String algorithm) {
+        String jwt = token("{\"alg\":\"" + algorithm + "\"}", "{\"exp\":" + FUTURE + "}");
+
+        assertEquals(TokenRejection.UNSUPPORTED_ALGORITHM, TokenPrecheck.check(jwt, NOW_MILLIS));
+    }
+
+    static Stream<Arguments> expirations() {
+        return Stream.of(
+            // Plain integers are checked
+            Arguments.of("past", "{\"exp\":" + PAST + "}", TokenRejection.EXPIRED),
+            Arguments.of("future", "{\"exp\":" + FUTURE + "}", null),
+            Arguments.of("zero", "{\"exp\":0}", TokenRejection.EXPIRED),
+            Arguments.of("far future", "{\"exp\":99999999999999999}", null),
+            Arguments.of("spaced out", "{ \"exp\" :\n\t" + PAST + " }", TokenRejection.EXPIRED),
+            Arguments.of("after other claims", "{\"sub\":\"user\",\"exp\":" + PAST + ",\"iat\":1}",
+                TokenRejection.EXPIRED),
+            Arguments.of("name used as a value first", "{\"sub\":\"exp\",\"exp\":" + PAST + "}",
+                TokenRejection.EXPIRED),
+            // Anything else is left to the full verification
+            Arguments.of("missing", "{\"sub\":\"user\"}", null),
+            Arguments.of("empty payload", "{}", null),
+            Arguments.of("float", "{\"exp\":" + PAST + ".5}", null),
+            Arguments.of("exponent", "{\"exp\":1e3}", null),
+            Arguments.of("upper case exponent", "{\"exp\":1E3}", null),
+            Arguments.of("oversized", "{\"exp\":123456789012345678901234567890}", null),
+            Arguments.of("negative", "{\"exp\":-1}", null),
+            Arguments.of("string", "{\"exp\":\"" + PAST + "\"}", null),
+            Arguments.of("null", "{\"exp\":null}", null),
+            Arguments.of("no colon", "{\"exp\"}", null),
+            Arguments.of("payload not json", "exp", null)
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("expirations")
+    public void test_check_expiration(String description, String payload, TokenRejection expected) {
+        assertEquals(expected, TokenPrecheck.check(token(RS256, payload), NOW_MILLIS));
+    }
+
+    static Stream<Arguments> headerWhitespace() {
+        return Stream.of(
+            Arguments.of("{ \"alg\" : \"RS256\" }"),
+            Arguments.of("{\n  \"alg\":\n  \"RS256\"\n}"),
+            Arguments.of("{\"typ\":\"JWT\",\t\"alg\"\t:\t\"RS384\"}"),
+            Arguments.of("{\"kid\":\"alg\",\"alg\":\"RS512\"}")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("headerWhitespace")
+    public void test_check_acceptsWhitespaceAndOrderVariants(String header) {
+        assertNull(TokenPrecheck.check(token(header, "{\"exp\":" + FUTURE + "}"), NOW_MILLIS));
+    }
+
+    @Test
+    public void test_check_passesGenuineTokens() {
+        Instant now = Instant.now();
+        for (SignatureAlgorithm algorithm : List.of(Jwts.SIG.RS256, Jwts.SIG.RS384, Jwts.SIG.RS512)) {
+            for (String subject : List.of("Username 1", "exp", "\"alg\":\"none\"", "ünïcödé", "a.b.c", " ")) {
+                String jwt = Jwts.builder()
+                    .issuer(TokenClaims.ISSUER)
+                    .subject(subject)
+                    .claim(TokenClaims.ROLES, "ROLE_USER,ROLE_ADMIN")
+                    .claim(TokenClaims.TOKEN_EPOCH, Long.MAX_VALUE)
+                    .issuedAt(Date.from(now))
+                    .expiration(Date.from(now.plusSeconds(60)))
+                    .signWith(keyPair.getPrivate(), algorithm)
+                    .compact();
+
+                assertNull(TokenPrecheck.check(jwt, now.toEpochMilli()), algorithm.getId() + " " + subject);
+            }
+        }
+    }
+
+    private static String token(String header, String payload) {
+        return encode(header) + "." + encode(payload) + "." + SIGNATURE;
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
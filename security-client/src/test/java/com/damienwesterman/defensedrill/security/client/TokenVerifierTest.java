@@ -0,0 +1,161 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+
+public class TokenVerifierTest {
+    static KeyPair currentPair;
+    static KeyPair otherPair;
+
+    AtomicReference<KeyPair> servedPair = new AtomicReference<>();
+    AtomicInteger rejections = new AtomicInteger();
+    TokenVerifier verifier;
+
+    @BeforeAll
+    public static void generateKeys() {
+        currentPair = Jwts.SIG.RS256.keyPair().build();
+        otherPair = Jwts.SIG.RS256.keyPair().build();
+    }
+
+    @BeforeEach
+    public void setup() {
+        servedPair.set(currentPair);
+        verifier = new TokenVerifier(new PublicKeySource() {
+            @Override
+            public PublicKey getPublicKey() {
+                return servedPair.get().getPublic();
+            }
+
+            @Override
+            public void onKeyRejected() {
+                rejections.incrementAndGet();
+            }
+        });
+    }
+
+    @Test
+    public void test_verify_returnsContents_ofGenuineToken() {
+        Instant issuedAt = Instant.now().minusSeconds(60).truncatedTo(ChronoUnit.SECONDS);
+        String jwt = token(currentPair)
+            .issuedAt(Date.from(issuedAt))
+            .claim(TokenClaims.TOKEN_EPOCH, 42L)
+            .compact();
+
+        VerifiedToken token = verifier.verify(jwt);
+
+        assertEquals("user", token.username());
+        assertEquals(EnumSet.of(UserRoles.USER, UserRoles.ADMIN), token.roles());
+        assertEquals(issuedAt, token.issuedAt());
+        assertEquals(42L, token.tokenEpoch());
+        assertTrue(token.grants(UserRoles.ADMIN));
+        assertTrue(verifier.check(jwt).isVerified());
+    }
+
+    @Test
+    public void test_check_rejectsForeignSignature_andReportsIt() {
+        TokenCheck check = verifier.check(token(otherPair).compact());
+
+        assertFalse(check.isVerified());
+        assertEquals(TokenRejection.INVALID_SIGNATURE, check.rejection());
+        assertEquals(1, rejections.get());
+    }
+
+    @Test
+    public void test_check_followsKeyRotation() {
+        String oldToken = token(currentPair).compact();
+        assertTrue(verifier.check(oldToken).isVerified());
+
+        servedPair.set(otherPair);
+
+        assertEquals(TokenRejection.INVALID_SIGNATURE, verifier.check(oldToken).rejection());
+        assertTrue(verifier.check(token(otherPair).compact()).isVerified());
+    }
+
+    @Test
+    public void test_check_rejectsWrongIssuer_andMissingSubject() {
+        assertEquals(TokenRejection.INVALID, verifier.check(token(currentPair).issuer("Someone").compact()).rejection());
+        assertEquals(TokenRejection.INVALID,
+            verifier.check(token(currentPair).subject(null).compact()).rejection());
+    }
+
+    @Test
+    public void test_check_rejectsExpired_withoutSignatureCheck() {
+        String jwt = token(otherPair).expiration(Date.from(Instant.now().minusSeconds(10))).compact();
+
+        assertEquals(TokenRejection.EXPIRED, verifier.check(jwt).rejection());
+        // Turned away before the signature was ever looked at
+        assertEquals(0, rejections.get());
+    }
+
+    @Test
+    public void test_verify_throws_forBlank_andVerifyOrNullDoesNot() {
+        assertThrows(IllegalArgumentException.class, () -> verifier.verify(" "));
+        assertNull(verifier.verifyOrNull(null));
+        assertNull(verifier.verifyOrNull("not.a.jwt"));
+    }
+
+    @Test
+    public void test_check_unknownRoles_grantNothing() {
+        VerifiedToken token = verifier.check(token(currentPair).claim(TokenClaims.ROLES, "ROLE_OWNER").compact())
+            .token();
+
+        assertTrue(token.roles().isEmpty());
+        assertFalse(token.grants(UserRoles.USER));
+    }
+
+    private static JwtBuilder token(KeyPair keyPair) {
+        return Jwts.builder()
+            .issuer(TokenClaims.ISSUER)
+            .subject("user")
+            .claim(TokenClaims.ROLES, "ROLE_USER,ROLE_ADMIN")
+            .issuedAt(new Date())
+            .expiration(Date.from(Instant.now().plus(Duration.ofMinutes(5))))
+            .signWith(keyPair.getPrivate());
+    }
+}
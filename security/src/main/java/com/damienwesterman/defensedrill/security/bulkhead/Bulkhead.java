@@ -0,0 +1,201 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.bulkhead;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Budget of concurrent requests and database connections for one class of endpoints, so a surge in one
+ * workload (e.g. logins) cannot use up the Tomcat threads and pooled connections every other workload
+ * needs.
+ * <br><br>
+ * Requests over the limit wait up to {@code maxWait} for a slot and are then turned away by
+ * {@link BulkheadFilter}. Connections are budgeted by {@link BulkheadDataSource} for whichever bulkhead
+ * the requesting thread is running in.
+ */
+public class Bulkhead {
+    /** Sent with every 503 for a full bulkhead, slots free up within milliseconds. */
+    public static final String RETRY_AFTER_SECONDS = "1";
+
+    private static final ThreadLocal<Bulkhead> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+    private final List<PathPattern> patterns;
+    private final int maxConcurrent;
+    private final Semaphore executions;
+    private final int maxConnections;
+    private final Semaphore connections;
+    private final long maxWaitNanos;
+    private final Counter rejectedExecutions;
+    private final Counter rejectedConnections;
+
+    /**
+     * Constructor.
+     *
+     * @param name Name, used as the bulkhead metric tag
+     * @param patterns Request paths handled by this bulkhead
+     * @param maxConcurrent Maximum concurrent requests
+     * @param maxConnections Maximum database connections held at once by those requests
+     * @param maxWait How long a request or connection may wait for a free slot
+     * @param meterRegistry Registry for the saturation metrics
+     */
+    public Bulkhead(String name, List<String> patterns, int maxConcurrent, int maxConnections, Duration maxWait,
+            MeterRegistry meterRegistry) {
+        this.name = name;
+        this.patterns = patterns.stream().map(PathPatternParser.defaultInstance::parse).toList();
+        this.maxConcurrent = maxConcurrent;
+        this.executions = new Semaphore(maxConcurrent, true);
+        this.maxConnections = maxConnections;
+        this.connections = new Semaphore(maxConnections, true);
+        this.maxWaitNanos = maxWait.toNanos();
+
+        Gauge.builder("security.bulkhead.active", this, Bulkhead::getActiveRequests)
+            .description("Requests currently running in the bulkhead")
+            .tag("bulkhead", name)
+            .register(meterRegistry);
+        Gauge.builder("security.bulkhead.saturation", this, bulkhead ->
+                (double) bulkhead.getActiveRequests() / bulkhead.maxConcurrent)
+            .description("Fraction of the bulkhead's request slots in use")
+            .tag("bulkhead", name)
+            .register(meterRegistry);
+        Gauge.builder("security.bulkhead.connections.active", this, Bulkhead::getActiveConnections)
+            .description("Database connections currently held by requests in the bulkhead")
+            .tag("bulkhead", name)
+            .register(meterRegistry);
+        this.rejectedExecutions = rejectedCounter(meterRegistry, name, "request");
+        this.rejectedConnections = rejectedCounter(meterRegistry, name, "connection");
+    }
+
+    /**
+     * @return Bulkhead the current thread is running in, null if none
+     */
+    @Nullable
+    public static Bulkhead current() {
+        return CURRENT.get();
+    }
+
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Check if a request path belongs to this bulkhead.
+     *
+     * @param path Request path, without the context path
+     * @return true if it matches one of the bulkhead's patterns
+     */
+    public boolean matches(@NonNull PathContainer path) {
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Enter this bulkhead to run a request on the current thread, waiting up to the configured time for a
+     * free slot. Must be followed by {@link #exit()} once the request is done, if successful.
+     *
+     * @return false if the bulkhead stayed full and the request must not run
+     */
+    public boolean tryEnter() {
+        if (!tryAcquire(executions)) {
+            rejectedExecutions.increment();
+            return false;
+        }
+
+        CURRENT.set(this);
+        return true;
+    }
+
+    /**
+     * Leave this bulkhead after a request entered with {@link #tryEnter()} is done.
+     */
+    public void exit() {
+        CURRENT.remove();
+        executions.release();
+    }
+
+    /**
+     * Take one of this bulkhead's connection slots, waiting up to the configured time.
+     *
+     * @return false if no slot became free in time
+     */
+    boolean tryAcquireConnection() {
+        if (!tryAcquire(connections)) {
+            rejectedConnections.increment();
+            return false;
+        }
+
+        return true;
+    }
+
+    void releaseConnection() {
+        connections.release();
+    }
+
+    int getActiveRequests() {
+        return maxConcurrent - executions.availablePermits();
+    }
+
+    int getActiveConnections() {
+        return maxConnections - connections.availablePermits();
+    }
+
+    private boolean tryAcquire(Semaphore semaphore) {
+        try {
+            return semaphore.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String name, String resource) {
+        return Counter.builder("security.bulkhead.rejected")
+            .description("Requests or connections turned away because the bulkhead was full")
+            .tag("bulkhead", name)
+            .tag("resource", resource)
+            .register(meterRegistry);
+    }
+}
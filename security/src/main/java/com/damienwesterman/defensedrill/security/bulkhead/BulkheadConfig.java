@@ -0,0 +1,99 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.bulkhead;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.lang.NonNull;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Splits the service into two bulkheads, login traffic and admin user management, each with its own
+ * limit on concurrent requests and on database connections. Limits are set with
+ * {@code defensedrill.bulkhead.<login|users>.max-concurrent}, {@code .max-connections} and
+ * {@code .max-wait}, the defaults leave part of Tomcat's 200 threads and Hikari's 10 connections free
+ * for everything else. Disable with {@code defensedrill.bulkhead.enabled=false}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "defensedrill.bulkhead", name = "enabled", matchIfMissing = true)
+public class BulkheadConfig {
+    /** Runs ahead of Spring Security, a rejected request should cost as little as possible. */
+    private static final int FILTER_ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+
+    @Bean
+    Bulkhead loginBulkhead(MeterRegistry meterRegistry,
+            @Value("${defensedrill.bulkhead.login.max-concurrent:100}") int maxConcurrent,
+            @Value("${defensedrill.bulkhead.login.max-connections:6}") int maxConnections,
+            @Value("${defensedrill.bulkhead.login.max-wait:50ms}") Duration maxWait) {
+        return new Bulkhead("login",
+            List.of("/authenticate", "/authenticate/**", "/log_in", "/login", "/log_out", "/token/**"),
+            maxConcurrent, maxConnections, maxWait, meterRegistry);
+    }
+
+    @Bean
+    Bulkhead usersBulkhead(MeterRegistry meterRegistry,
+            @Value("${defensedrill.bulkhead.users.max-concurrent:20}") int maxConcurrent,
+            @Value("${defensedrill.bulkhead.users.max-connections:3}") int maxConnections,
+            @Value("${defensedrill.bulkhead.users.max-wait:500ms}") Duration maxWait) {
+        return new Bulkhead("users", List.of("/user", "/user/**"),
+            maxConcurrent, maxConnections, maxWait, meterRegistry);
+    }
+
+    @Bean
+    FilterRegistrationBean<BulkheadFilter> bulkheadFilter(List<Bulkhead> bulkheads) {
+        FilterRegistrationBean<BulkheadFilter> registration =
+            new FilterRegistrationBean<>(new BulkheadFilter(bulkheads));
+        registration.setOrder(FILTER_ORDER);
+        return registration;
+    }
+
+    @Bean
+    static BeanPostProcessor bulkheadDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                // Only the DataSource the application uses, not the pools behind a read replica router
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                    return new BulkheadDataSource(dataSource);
+                }
+
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,112 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.bulkhead;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+
+import com.damienwesterman.defensedrill.security.exception.BulkheadFullException;
+
+/**
+ * Gives each {@link Bulkhead} its own budget of connections from the shared pool. A thread running in a
+ * bulkhead takes one of its connection slots for as long as it holds a connection, threads outside any
+ * bulkhead (startup, scheduled jobs, health checks) draw from the pool directly. Running out throws a
+ * {@link BulkheadFullException}, which is answered with a 503.
+ */
+class BulkheadDataSource extends DelegatingDataSource {
+    BulkheadDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    @NonNull
+    public Connection getConnection() throws SQLException {
+        return budgeted(Bulkhead.current(), () -> super.getConnection());
+    }
+
+    @Override
+    @NonNull
+    public Connection getConnection(@NonNull String username, @NonNull String password) throws SQLException {
+        return budgeted(Bulkhead.current(), () -> super.getConnection(username, password));
+    }
+
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+
+    private static Connection budgeted(Bulkhead bulkhead, ConnectionSupplier supplier) throws SQLException {
+        if (null == bulkhead) {
+            return supplier.get();
+        }
+
+        if (!bulkhead.tryAcquireConnection()) {
+            throw new BulkheadFullException(
+                "Bulkhead " + bulkhead.getName() + " has no database connections left");
+        }
+
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            bulkhead.releaseConnection();
+            throw e;
+        }
+
+        return releasingOnClose(connection, bulkhead);
+    }
+
+    /**
+     * Wrap a connection so closing it (returning it to the pool) also frees the bulkhead's slot, once.
+     */
+    private static Connection releasingOnClose(Connection connection, Bulkhead bulkhead) {
+        AtomicBoolean released = new AtomicBoolean(false);
+        return (Connection) Proxy.newProxyInstance(
+            BulkheadDataSource.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                    bulkhead.releaseConnection();
+                } else if ("unwrap".equals(method.getName()) && Connection.class.equals(args[0])) {
+                    return proxy;
+                }
+
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            });
+    }
+}
@@ -0,0 +1,88 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.bulkhead;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.damienwesterman.defensedrill.security.exception.BulkheadFullException;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Runs each request in the first {@link Bulkhead} whose patterns match its path. A request finding its
+ * bulkhead full is answered with a 503 right away instead of queueing for a Tomcat thread, as is one that
+ * fails in a filter because its bulkhead ran out of connections (the {@code GlobalExceptionHandler} does
+ * the same for controllers). Requests not matching any bulkhead (health checks, metrics) are never limited.
+ */
+@RequiredArgsConstructor
+class BulkheadFilter extends OncePerRequestFilter {
+    private final List<Bulkhead> bulkheads;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        PathContainer path = PathContainer.parsePath(
+            request.getRequestURI().substring(request.getContextPath().length()));
+        for (Bulkhead bulkhead : bulkheads) {
+            if (bulkhead.matches(path)) {
+                if (!bulkhead.tryEnter()) {
+                    reject(response);
+                    return;
+                }
+
+                try {
+                    filterChain.doFilter(request, response);
+                } catch (ServletException | RuntimeException e) {
+                    if (!BulkheadFullException.isCauseOf(e) || response.isCommitted()) {
+                        throw e;
+                    }
+                    reject(response);
+                } finally {
+                    bulkhead.exit();
+                }
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private static void reject(HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, Bulkhead.RETRY_AFTER_SECONDS);
+        response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    }
+}
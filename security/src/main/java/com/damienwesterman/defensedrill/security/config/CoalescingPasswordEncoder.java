@@ -0,0 +1,95 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.config;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.damienwesterman.defensedrill.security.util.SingleFlight;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * PasswordEncoder decorator that coalesces identical concurrent password checks. When many devices log in
+ * to the same account at once, only one BCrypt comparison runs per distinct (password, hash) pair and the
+ * others wait for its result.
+ * <br><br>
+ * Calls are keyed by a SHA-256 digest of the stored hash and the raw password, so the raw password is
+ * never held beyond the call itself. A waiting caller never finishes before the comparison it joined,
+ * so response times reveal nothing a normal check would not.
+ */
+class CoalescingPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final SingleFlight<ByteBuffer, Boolean> matches = new SingleFlight<>();
+
+    CoalescingPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        FunctionCounter.builder("security.singleflight.shared", matches, SingleFlight::getSharedCalls)
+            .description("Calls answered with the result of an identical concurrent call")
+            .tag("operation", "password-match")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (null == rawPassword || null == encodedPassword) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+
+        return matches.execute(digest(rawPassword, encodedPassword),
+            () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static ByteBuffer digest(CharSequence rawPassword, String encodedPassword) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(StandardCharsets.UTF_8.encode(CharBuffer.wrap(rawPassword)));
+            return ByteBuffer.wrap(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
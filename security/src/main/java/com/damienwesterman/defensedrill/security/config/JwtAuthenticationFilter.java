@@ -0,0 +1,89 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import com.damienwesterman.defensedrill.security.client.UserRoles;
+import com.damienwesterman.defensedrill.security.client.VerifiedToken;
+import com.damienwesterman.defensedrill.security.service.TokenIssuer;
+import com.damienwesterman.defensedrill.security.util.Roles;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Authenticates a request from a token issued by this service (a JWT or a reference token, see
+ * {@link TokenIssuer}), taken from the Bearer Authorization header or
+ * the "jwt" cookie. Only used for the few endpoints this service protects itself (operational endpoints
+ * that never go through the gateway), everything else is authorized by the gateway.
+ */
+@RequiredArgsConstructor
+class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String JWT_COOKIE = "jwt";
+
+    private final TokenIssuer tokenIssuer;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String jwt = getJwt(request);
+        if (null != jwt) {
+            VerifiedToken token = tokenIssuer.verify(jwt);
+            if (null != token && !token.roles().isEmpty()) {
+                Roles roles = Roles.of(token.roles().toArray(new UserRoles[0]));
+                SecurityContextHolder.getContext().setAuthentication(
+                    UsernamePasswordAuthenticationToken.authenticated(
+                        token.username(), null, roles.toAuthorities()));
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private static String getJwt(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (null != header && header.startsWith(BEARER_PREFIX)) {
+            return header.substring(BEARER_PREFIX.length());
+        }
+
+        Cookie cookie = WebUtils.getCookie(request, JWT_COOKIE);
+        return null == cookie ? null : cookie.getValue();
+    }
+}
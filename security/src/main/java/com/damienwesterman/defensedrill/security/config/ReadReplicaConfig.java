@@ -0,0 +1,146 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.config;
+
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Splits database traffic between the primary and a read replica. Only active when
+ * {@code defensedrill.datasource.replica.jdbc-url} is set, otherwise spring's single auto-configured
+ * DataSource is used as before.
+ * <br><br>
+ * Connections for {@code @Transactional(readOnly = true)} work are taken from the replica, everything
+ * else goes to the primary. After a write transaction commits, reads on this node are pinned to the
+ * primary for {@code defensedrill.datasource.read-your-writes-window} so a caller immediately reading
+ * back what it just created or updated does not race replication lag.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "defensedrill.datasource.replica", name = "jdbc-url")
+public class ReadReplicaConfig {
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("defensedrill.datasource.replica")
+    HikariDataSource replicaDataSource(DataSourceProperties properties) {
+        // Start from the primary's settings (credentials, driver), replica specific values are bound on top
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    ReadYourWritesDataSource readYourWritesDataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${defensedrill.datasource.read-your-writes-window:2s}") Duration readYourWritesWindow) {
+        return new ReadYourWritesDataSource(primary, replica, readYourWritesWindow);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+            ReadYourWritesDataSource readYourWritesDataSource) {
+        /*
+         * The lazy proxy only fetches a physical connection on the first statement, by which point the
+         * transaction has marked the connection read only, so it knows which pool to ask.
+         */
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(readYourWritesDataSource);
+        return proxy;
+    }
+
+    @Bean
+    TransactionExecutionListener readYourWritesListener(ReadYourWritesDataSource readYourWritesDataSource) {
+        return new TransactionExecutionListener() {
+            @Override
+            public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+                if (null == commitFailure && !transaction.isReadOnly()) {
+                    readYourWritesDataSource.pinToPrimary();
+                }
+            }
+        };
+    }
+
+    /**
+     * Read only DataSource that normally hands out replica connections, but falls back to the primary
+     * for a short window after this node commits a write, or learns that another node did.
+     */
+    public static class ReadYourWritesDataSource extends AbstractRoutingDataSource {
+        private static final String PRIMARY = "primary";
+        private static final String REPLICA = "replica";
+
+        private final long windowNanos;
+        private volatile long pinnedUntilNanos;
+
+        ReadYourWritesDataSource(DataSource primary, DataSource replica, Duration window) {
+            this.windowNanos = window.toNanos();
+            this.pinnedUntilNanos = System.nanoTime();
+            setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+            setDefaultTargetDataSource(replica);
+        }
+
+        /**
+         * Serve reads from the primary for the read-your-writes window, starting now.
+         */
+        public void pinToPrimary() {
+            pinnedUntilNanos = System.nanoTime() + windowNanos;
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return 0 < pinnedUntilNanos - System.nanoTime() ? PRIMARY : REPLICA;
+        }
+    }
+}
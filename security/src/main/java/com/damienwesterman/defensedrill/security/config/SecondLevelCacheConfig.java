@@ -0,0 +1,85 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.config;
+
+import java.util.List;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.stat.HibernateMetrics;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.damienwesterman.defensedrill.security.entity.UserEntity;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Wires the Caffeine backed JCache manager into Hibernate's second level cache and publishes its
+ * statistics to Actuator.
+ * <br><br>
+ * Hibernate statistics give per region hit/miss/put counts ({@code hibernate.second.level.cache.*}),
+ * while the JCache metrics add size and eviction counts per region ({@code cache.*}).
+ */
+@Configuration(proxyBeanMethods = false)
+public class SecondLevelCacheConfig {
+    private static final List<String> CACHE_REGIONS =
+        List.of(UserEntity.CACHE_REGION, UserEntity.NATURAL_ID_CACHE_REGION);
+
+    @Bean(destroyMethod = "close")
+    CacheManager hibernateCacheManager() {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        // Hand Hibernate our instance, so the caches it uses are the same ones the metrics are bound to
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    @Bean
+    MeterBinder hibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> new HibernateMetrics(
+            entityManagerFactory.unwrap(SessionFactory.class), "entityManagerFactory", Tags.empty()
+        ).bindTo(registry);
+    }
+
+    @Bean
+    MeterBinder secondLevelCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> CACHE_REGIONS.forEach(region -> JCacheMetrics.monitor(
+            registry, hibernateCacheManager.getCache(region), Tags.of("cacheManager", "hibernate")
+        ));
+    }
+}
@@ -26,12 +26,10 @@
 
 package com.damienwesterman.defensedrill.security.config;
 
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.AuthenticationProvider;
-import org.springframework.security.authentication.ProviderManager;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -41,17 +39,47 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
 
-import com.damienwesterman.defensedrill.security.service.DrillUserDetailsService;
+import com.damienwesterman.defensedrill.security.client.UserRoles;
+import com.damienwesterman.defensedrill.security.jfr.JfrEndpoint;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics;
+import com.damienwesterman.defensedrill.security.service.TokenIssuer;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 @EnableWebSecurity
-@RequiredArgsConstructor
 public class SecurityConfig {
-    private final DrillUserDetailsService userDetailsService;
-    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final TokenIssuer tokenIssuer;
+    private final PasswordEncoder passwordEncoder;
+
+    public SecurityConfig(TokenIssuer tokenIssuer, AuthenticationMetrics metrics, MeterRegistry meterRegistry) {
+        this.tokenIssuer = tokenIssuer;
+        // Timed outside the coalescing, so a caller waiting on an identical check is timed for its wait
+        this.passwordEncoder = new TimedPasswordEncoder(
+            new CoalescingPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry), metrics);
+    }
+
+    /**
+     * Operational endpoints that can affect the running node are only reachable by admins, since they are
+     * called on the node directly rather than through the gateway.
+     */
+    @Bean
+    @Order(1)
+    SecurityFilterChain adminEndpointsFilterChain(HttpSecurity httpSecurity) throws Exception {
+        return httpSecurity
+            .securityMatcher(EndpointRequest.to(JfrEndpoint.class))
+            .authorizeHttpRequests(registry ->
+                registry.anyRequest().hasRole(UserRoles.ADMIN.getStringRepresentation()))
+            .addFilterBefore(new JwtAuthenticationFilter(tokenIssuer), AnonymousAuthenticationFilter.class)
+            .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .httpBasic(HttpBasicConfigurer::disable)
+            .formLogin(FormLoginConfigurer::disable)
+            // Only bearer tokens and the SameSite=Strict JWT cookie are accepted
+            .csrf(AbstractHttpConfigurer::disable)
+            .build();
+    }
 
     @Bean
     SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
@@ -64,7 +92,7 @@ public class SecurityConfig {
                 registry.anyRequest().permitAll();
             })
             .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-            .authenticationProvider(authenticationProvider())
+            // Credentials are checked by AuthenticationService in the login controllers, not by Spring Security
             .httpBasic(HttpBasicConfigurer::disable)
             .formLogin(FormLoginConfigurer::disable)
             // We will leave this disabled as we have marked our JWT cookie as SameSite=Strict
@@ -72,20 +100,8 @@ public class SecurityConfig {
             .build();
     }
 
-    AuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
-        provider.setUserDetailsService(userDetailsService);
-        provider.setPasswordEncoder(passwordEncoder);
-        return provider;
-    }
-
     @Bean
     PasswordEncoder passwordEncoder() {
         return passwordEncoder;
     }
-
-    @Bean
-    AuthenticationManager authenticationManager() {
-        return new ProviderManager(authenticationProvider());
-    }
 }
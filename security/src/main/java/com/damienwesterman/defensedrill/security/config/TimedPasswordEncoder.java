@@ -0,0 +1,68 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.config;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.Outcome;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.Phase;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.PhaseTimer;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * PasswordEncoder decorator that times every password match, which is where BCrypt spends its time.
+ */
+@RequiredArgsConstructor
+class TimedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final AuthenticationMetrics metrics;
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PhaseTimer timer = metrics.start(Phase.PASSWORD_MATCH);
+        Outcome outcome = Outcome.ERROR;
+        try {
+            boolean matches = delegate.matches(rawPassword, encodedPassword);
+            outcome = matches ? Outcome.SUCCESS : Outcome.BAD_CREDENTIALS;
+            return matches;
+        } finally {
+            metrics.stop(timer, outcome);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
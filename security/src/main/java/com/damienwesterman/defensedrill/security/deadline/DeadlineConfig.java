@@ -0,0 +1,56 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.deadline;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers the {@link DeadlineFilter}. {@code defensedrill.deadline.default-timeout} should be about
+ * the gateway's timeout for this service, disable with {@code defensedrill.deadline.enabled=false}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "defensedrill.deadline", name = "enabled", matchIfMissing = true)
+public class DeadlineConfig {
+    /** First of our filters, so time spent waiting in a bulkhead counts against the deadline. */
+    private static final int FILTER_ORDER = Ordered.HIGHEST_PRECEDENCE + 50;
+
+    @Bean
+    FilterRegistrationBean<DeadlineFilter> deadlineFilter(
+            @Value("${defensedrill.deadline.default-timeout:5s}") Duration defaultTimeout) {
+        FilterRegistrationBean<DeadlineFilter> registration =
+            new FilterRegistrationBean<>(new DeadlineFilter(defaultTimeout.toNanos()));
+        registration.setOrder(FILTER_ORDER);
+        return registration;
+    }
+}
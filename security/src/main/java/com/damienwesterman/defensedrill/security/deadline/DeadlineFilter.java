@@ -0,0 +1,80 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.deadline;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Sets the {@link RequestDeadline} for each request: the arrival time plus the {@value #TIMEOUT_HEADER}
+ * header if the caller sent one, otherwise plus the default timeout.
+ * <br><br>
+ * The header is the caller's remaining budget in whole milliseconds (e.g. {@code X-Request-Timeout-Ms: 250}),
+ * relative rather than a point in time so that clock skew between the caller and this node does not
+ * matter. Each hop forwards what is left of its own budget. Zero or less means the caller has already
+ * given up, anything unparseable is ignored. A caller's budget is never extended past the default
+ * timeout, so a misbehaving client cannot ask for more.
+ */
+@RequiredArgsConstructor
+class DeadlineFilter extends OncePerRequestFilter {
+    static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    private final long defaultTimeoutNanos;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        long arrivalNanos = System.nanoTime();
+        long timeoutNanos = defaultTimeoutNanos;
+
+        String header = request.getHeader(TIMEOUT_HEADER);
+        if (null != header) {
+            try {
+                long remainingMillis = Math.max(0, Long.parseLong(header.trim()));
+                timeoutNanos = Math.min(timeoutNanos, TimeUnit.MILLISECONDS.toNanos(remainingMillis));
+            } catch (NumberFormatException e) {
+                // Ignore it and use the default, a bad header is no reason to fail the request
+            }
+        }
+
+        RequestDeadline.set(arrivalNanos + timeoutNanos);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+}
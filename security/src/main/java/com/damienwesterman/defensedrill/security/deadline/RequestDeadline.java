@@ -0,0 +1,57 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.deadline;
+
+/**
+ * Point in time after which nobody is waiting for the current request's response any more, set by
+ * {@link DeadlineFilter}. Expensive work (user lookups, BCrypt) checks it first, so an overloaded node
+ * spends its capacity on requests that can still succeed rather than on ones the gateway already timed
+ * out.
+ */
+public final class RequestDeadline {
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    private RequestDeadline() { }
+
+    /**
+     * Check the current thread's deadline.
+     *
+     * @return true if the current request's deadline has passed, false if not or outside of a request
+     */
+    public static boolean isExpired() {
+        Long deadlineNanos = DEADLINE_NANOS.get();
+        return null != deadlineNanos && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    static void set(long deadlineNanos) {
+        DEADLINE_NANOS.set(deadlineNanos);
+    }
+
+    static void clear() {
+        DEADLINE_NANOS.remove();
+    }
+}
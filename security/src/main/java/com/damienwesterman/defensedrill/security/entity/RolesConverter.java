@@ -0,0 +1,54 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.entity;
+
+import com.damienwesterman.defensedrill.security.util.Roles;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link Roles} as the comma separated list of role names in the users table.
+ */
+@Converter
+public class RolesConverter implements AttributeConverter<Roles, String> {
+    @Override
+    public String convertToDatabaseColumn(Roles roles) {
+        return null == roles ? null : roles.toString();
+    }
+
+    @Override
+    public Roles convertToEntityAttribute(String roles) {
+        if (null == roles) {
+            return null;
+        }
+
+        // Unknown roles in the database come back as no roles at all, which fails every role check
+        Roles parsed = Roles.parseOrNull(roles);
+        return null == parsed ? Roles.NONE : parsed;
+    }
+}
@@ -26,13 +26,25 @@
 
 package com.damienwesterman.defensedrill.security.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Generated;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import com.damienwesterman.defensedrill.security.util.Roles;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -41,19 +53,29 @@ import lombok.NoArgsConstructor;
 
 /**
  * Database entity class for a user.
+ * <br><br>
+ * Cached in the Hibernate second level cache, both by ID and by name (natural ID). Region sizes and
+ * expiry are configured in application.conf.
  */
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = UserEntity.CACHE_REGION)
+@NaturalIdCache(region = UserEntity.NATURAL_ID_CACHE_REGION)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 public class UserEntity {
+    public static final String CACHE_REGION = "users";
+    public static final String NATURAL_ID_CACHE_REGION = "users-by-name";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     // @NotNull -> This can (and should) be null when creating a new entity
     private Long id;
 
+    @NaturalId(mutable = true)
     @Column(unique = true)
     @NotEmpty
     @Size(min = 6, max = 31)
@@ -66,8 +88,20 @@ public class UserEntity {
     private String password;
 
     @Column
-    @NotEmpty
-    @Size(max = 511)
-    /** Comma separated list of roles */
-    private String roles;
+    @Convert(converter = RolesConverter.class)
+    @NotNull
+    /** Stored as a comma separated list of roles */
+    private Roles roles;
+
+    /** Optimistic locking version, incremented on every update. */
+    @Version
+    private Long version;
+
+    /**
+     * Token epoch, embedded in every token issued to the user. Set by the database on insert and moved on
+     * by UserRepository's bump queries, never written through the entity.
+     */
+    @Generated
+    @Column(name = "token_epoch", insertable = false, updatable = false)
+    private Long tokenEpoch;
 }
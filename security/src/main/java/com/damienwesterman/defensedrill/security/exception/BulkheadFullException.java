@@ -0,0 +1,58 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.exception;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Exception for a request whose bulkhead has no database connections left. Usually reaches the web layer
+ * wrapped in Spring's data access or transaction exceptions, and is answered with a 503 so the caller
+ * retries shortly rather than treating it as a server error.
+ */
+public class BulkheadFullException extends SQLTransientConnectionException {
+    private static final long serialVersionUID = 1L;
+
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+
+    /**
+     * Check if an exception was caused by a full bulkhead, however deeply it was wrapped.
+     *
+     * @param e Exception
+     * @return true if it or one of its causes is a BulkheadFullException
+     */
+    public static boolean isCauseOf(Throwable e) {
+        for (Throwable cause = e; null != cause; cause = cause.getCause()) {
+            if (cause instanceof BulkheadFullException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,133 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Actuator endpoint that records this node with Java Flight Recorder for a fixed time and streams back
+ * the .jfr file, e.g. {@code POST /actuator/jfr {"duration": "30s", "settings": "profile"}}. Only one
+ * recording runs at a time and the duration is capped by {@code defensedrill.jfr.max-duration}, so at most
+ * one request thread is ever held, and only briefly. Access is restricted to admins by the SecurityConfig.
+ * <br><br>
+ * The recording is read into memory and its temporary file deleted before responding, so an aborted
+ * download cannot leave files behind.
+ */
+@Component
+@Endpoint(id = "jfr")
+@Slf4j
+public class JfrEndpoint {
+    private static final Duration DEFAULT_DURATION = Duration.ofSeconds(30);
+    private static final String DEFAULT_SETTINGS = "profile";
+
+    private final Duration maxDuration;
+    private final AtomicBoolean recording = new AtomicBoolean(false);
+
+    public JfrEndpoint(@Value("${defensedrill.jfr.max-duration:60s}") Duration maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+
+    /**
+     * Record for the given time and return the recording.
+     *
+     * @param duration How long to record, defaults to 30 seconds
+     * @param settings JFR settings to record with, "default" or "profile" (the default)
+     * @return The .jfr file, 429 if a recording is already running, 400 for bad arguments
+     */
+    @WriteOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> record(@Nullable Duration duration, @Nullable String settings) {
+        Duration recordFor = null == duration ? DEFAULT_DURATION : duration;
+        if (recordFor.isNegative() || recordFor.isZero() || 0 < recordFor.compareTo(maxDuration)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(null == settings ? DEFAULT_SETTINGS : settings);
+        } catch (IOException | ParseException e) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        if (!recording.compareAndSet(false, true)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+
+        Path file = null;
+        try (Recording jfr = new Recording(configuration)) {
+            jfr.setName("defensedrill-security-on-demand");
+            jfr.setToDisk(true);
+            // JFR stops the recording by itself, even if this thread never gets back to it
+            jfr.setDuration(recordFor);
+            jfr.start();
+            Thread.sleep(recordFor.toMillis());
+            jfr.stop();
+
+            file = Files.createTempFile("security-", ".jfr");
+            jfr.dump(file);
+            return new WebEndpointResponse<>(new ByteArrayResource(Files.readAllBytes(file)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        } catch (IOException e) {
+            log.error("Failed to write JFR recording", e);
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+        } finally {
+            deleteQuietly(file);
+            recording.set(false);
+        }
+    }
+
+    private static void deleteQuietly(@Nullable Path file) {
+        if (null == file) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete JFR recording " + file, e);
+        }
+    }
+}
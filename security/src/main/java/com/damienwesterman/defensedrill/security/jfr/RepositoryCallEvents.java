@@ -0,0 +1,79 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import com.damienwesterman.defensedrill.security.jfr.SecurityEvents.RepositoryCallEvent;
+
+/**
+ * Emits a {@link RepositoryCallEvent} for every call to a Spring Data repository, derived queries, custom
+ * fragments and inherited CRUD methods alike. The interceptor is added to each repository proxy when it is
+ * built, so the repositories themselves stay unaware of it.
+ */
+@Component
+public class RepositoryCallEvents implements BeanPostProcessor {
+    @Override
+    public Object postProcessBeforeInitialization(@NonNull Object bean, @NonNull String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                    interceptor(repositoryInformation.getRepositoryInterface().getSimpleName()))));
+        }
+
+        return bean;
+    }
+
+    private static MethodInterceptor interceptor(String repository) {
+        return invocation -> {
+            RepositoryCallEvent event = new RepositoryCallEvent();
+            if (!event.isEnabled()) {
+                return invocation.proceed();
+            }
+
+            event.begin();
+            String outcome = "error";
+            try {
+                Object result = invocation.proceed();
+                outcome = "success";
+                return result;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.repository = repository;
+                    event.method = invocation.getMethod().getName();
+                    event.outcome = outcome;
+                    event.commit();
+                }
+            }
+        };
+    }
+}
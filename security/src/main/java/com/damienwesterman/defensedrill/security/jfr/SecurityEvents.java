@@ -0,0 +1,103 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Custom Java Flight Recorder events for the authentication hot path. Stack traces are off, so an enabled
+ * event costs little more than two timestamps, and a disabled one is never committed.
+ * <br><br>
+ * Authentication phases are emitted through
+ * {@link com.damienwesterman.defensedrill.security.service.AuthenticationMetrics}, repository calls by
+ * {@link RepositoryCallEvents}.
+ */
+public final class SecurityEvents {
+    private static final String PREFIX = "com.damienwesterman.defensedrill.security.";
+    private static final String CATEGORY = "DefenseDrill Security";
+
+    private SecurityEvents() { }
+
+    /**
+     * One timed phase of authenticating a user.
+     */
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public abstract static class PhaseEvent extends Event {
+        @Label("Endpoint")
+        @Description("Matched request mapping pattern, none outside of a request")
+        public String endpoint;
+
+        @Label("Outcome")
+        public String outcome;
+    }
+
+    @Name(PREFIX + "AuthenticationAttempt")
+    @Label("Authentication Attempt")
+    @Description("A complete login attempt, from credentials to issued token")
+    public static class AuthenticationAttemptEvent extends PhaseEvent { }
+
+    @Name(PREFIX + "UserLookup")
+    @Label("User Lookup")
+    public static class UserLookupEvent extends PhaseEvent { }
+
+    @Name(PREFIX + "PasswordVerify")
+    @Label("Password Verify")
+    public static class PasswordVerifyEvent extends PhaseEvent { }
+
+    @Name(PREFIX + "JwtSign")
+    @Label("JWT Sign")
+    public static class JwtSignEvent extends PhaseEvent { }
+
+    @Name(PREFIX + "JwtVerify")
+    @Label("JWT Verify")
+    public static class JwtVerifyEvent extends PhaseEvent { }
+
+    @Name(PREFIX + "CookieBuild")
+    @Label("Cookie Build")
+    public static class CookieBuildEvent extends PhaseEvent { }
+
+    @Name(PREFIX + "RepositoryCall")
+    @Label("Repository Call")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class RepositoryCallEvent extends Event {
+        @Label("Repository")
+        public String repository;
+
+        @Label("Method")
+        public String method;
+
+        @Label("Outcome")
+        public String outcome;
+    }
+}
@@ -0,0 +1,40 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.repository;
+
+import com.damienwesterman.defensedrill.security.util.Roles;
+
+/**
+ * Public columns of a user, read by the {@link UserRepository} projection queries instead of the whole
+ * {@link com.damienwesterman.defensedrill.security.entity.UserEntity}.
+ *
+ * @param id User ID
+ * @param name Username
+ * @param roles Roles
+ * @param version Optimistic locking version
+ */
+public record UserInfo(Long id, String name, Roles roles, Long version) { }
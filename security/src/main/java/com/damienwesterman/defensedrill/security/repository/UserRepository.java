@@ -0,0 +1,157 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.damienwesterman.defensedrill.security.entity.UserEntity;
+import com.damienwesterman.defensedrill.security.util.Roles;
+
+import jakarta.persistence.QueryHint;
+
+/**
+ * Database repository for {@link UserEntity}.
+ */
+@Repository
+public interface UserRepository extends JpaRepository<UserEntity, Long>, UserRepositoryCustom {
+    /*
+     * Projections used by the read endpoints. These only select the public columns, so password hashes are
+     * never read from the database or held on the heap just to be thrown away.
+     */
+    String USER_INFO_PROJECTION =
+        "SELECT new com.damienwesterman.defensedrill.security.repository.UserInfo(u.id, u.name, u.roles, u.version) "
+            + "FROM UserEntity u ";
+
+    @Query(USER_INFO_PROJECTION + "ORDER BY u.name ASC")
+    List<UserInfo> findAllUserInfo();
+
+    /*
+     * Roles are matched against the stored comma separated string. The parameter is wrapped in CONCAT so
+     * it is bound as a plain string rather than through the Roles converter.
+     */
+    String HAS_ROLE = "u.roles LIKE CONCAT('%', :role, '%') ";
+
+    @Query(USER_INFO_PROJECTION + "WHERE " + HAS_ROLE + "ORDER BY u.name ASC")
+    List<UserInfo> findAllUserInfoByRole(@Param("role") String role);
+
+    @Query("SELECT u FROM UserEntity u WHERE " + HAS_ROLE + "ORDER BY u.name ASC")
+    List<UserEntity> findAllByRole(@Param("role") String role);
+
+    @Query(USER_INFO_PROJECTION + "WHERE u.id = :id")
+    Optional<UserInfo> findUserInfoById(@Param("id") Long id);
+
+    @Query(USER_INFO_PROJECTION + "WHERE u.id IN :ids ORDER BY u.name ASC")
+    List<UserInfo> findAllUserInfoByIdIn(@Param("ids") Collection<Long> ids);
+
+    long countByIdIn(Collection<Long> ids);
+
+    /*
+     * Bulk operations are all or nothing: the admin check does not depend on the row, so either every
+     * listed user is changed or none is. It passes if none of the listed users is an admin, or an admin
+     * remains outside the list.
+     */
+    String KEEPS_AN_ADMIN = "(NOT EXISTS (SELECT 1 FROM UserEntity listed "
+            + "WHERE listed.id IN :ids AND listed.roles LIKE CONCAT('%', :adminRole, '%')) "
+        + "OR EXISTS (SELECT 1 FROM UserEntity other "
+            + "WHERE other.id NOT IN :ids AND other.roles LIKE CONCAT('%', :adminRole, '%')))";
+
+    /*
+     * Updates also move the user to a new token epoch, revoking every token issued to them so far. Epochs
+     * come from the same sequence as the column default, so no epoch is ever handed out twice. The column is
+     * read-only on UserEntity, so those updates are native SQL. They are synchronized on the users table,
+     * so Hibernate only evicts the cached users instead of the whole second level cache.
+     */
+    String NEXT_TOKEN_EPOCH = "token_epoch = nextval('users_token_epoch_seq') ";
+    String USERS_TABLE = "users";
+
+    /** {@link #KEEPS_AN_ADMIN} for the native statements. */
+    String KEEPS_AN_ADMIN_SQL = "(NOT EXISTS (SELECT 1 FROM users listed "
+            + "WHERE listed.id IN (:ids) AND listed.roles LIKE CONCAT('%', :adminRole, '%')) "
+        + "OR EXISTS (SELECT 1 FROM users other "
+            + "WHERE other.id NOT IN (:ids) AND other.roles LIKE CONCAT('%', :adminRole, '%')))";
+
+    /**
+     * Replace the roles of every listed user in a single statement, moving them to a new token epoch.
+     * Nothing is updated if the change would remove the last user holding {@code adminRole}.
+     *
+     * @param roles New roles as stored, see {@link Roles#toString()}
+     * @return Number of rows updated.
+     */
+    @Modifying(clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = USERS_TABLE))
+    @Query(value = "UPDATE users SET roles = :roles, version = version + 1, " + NEXT_TOKEN_EPOCH
+        + "WHERE id IN (:ids) AND (:keepsAdmin = TRUE OR " + KEEPS_AN_ADMIN_SQL + ")", nativeQuery = true)
+    int bulkUpdateRoles(@Param("ids") Collection<Long> ids, @Param("roles") String roles,
+        @Param("keepsAdmin") boolean keepsAdmin, @Param("adminRole") String adminRole);
+
+    /**
+     * Delete every listed user in a single statement. Nothing is deleted if that would remove the last user
+     * holding {@code adminRole}.
+     *
+     * @return Number of rows deleted.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM UserEntity u WHERE u.id IN :ids AND " + KEEPS_AN_ADMIN)
+    int bulkDelete(@Param("ids") Collection<Long> ids, @Param("adminRole") String adminRole);
+
+    /**
+     * Update a user in a single statement, without reading it first, moving them to a new token epoch. The
+     * row is only updated if:
+     * <ul>
+     *  <li>{@code version} is null or still matches the stored version</li>
+     *  <li>the update would not remove the last user holding {@code adminRole}</li>
+     * </ul>
+     *
+     * @param roles New roles as stored, see {@link Roles#toString()}
+     * @return Number of rows updated, 0 if the user does not exist or one of the conditions failed.
+     */
+    @Modifying(clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = USERS_TABLE))
+    @Query(value = "UPDATE users "
+        + "SET name = :name, password = :password, roles = :roles, version = version + 1, " + NEXT_TOKEN_EPOCH
+        + "WHERE id = :id "
+        // Cast, a null parameter alone does not tell PostgreSQL its type
+        + "AND (CAST(:version AS BIGINT) IS NULL OR version = CAST(:version AS BIGINT)) "
+        + "AND (:keepsAdmin = TRUE "
+            + "OR roles NOT LIKE CONCAT('%', :adminRole, '%') "
+            + "OR EXISTS (SELECT 1 FROM users other "
+                + "WHERE other.id <> :id AND other.roles LIKE CONCAT('%', :adminRole, '%')))",
+        nativeQuery = true)
+    int conditionalUpdate(@Param("id") Long id, @Param("version") Long version,
+        @Param("name") String name, @Param("password") String password, @Param("roles") String roles,
+        @Param("keepsAdmin") boolean keepsAdmin, @Param("adminRole") String adminRole);
+}
@@ -28,15 +28,18 @@ package com.damienwesterman.defensedrill.security.repository;
 
 import java.util.Optional;
 
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
-
 import com.damienwesterman.defensedrill.security.entity.UserEntity;
 
 /**
- * Database repository for {@link UserEntity}.
+ * Custom {@link UserRepository} queries that cannot be derived by Spring Data.
  */
-@Repository
-public interface UserRepository extends JpaRepository<UserEntity, Long> {
+public interface UserRepositoryCustom {
+    /**
+     * Find a user by their name. Goes through the natural ID API, so it is served from the second level
+     * cache when possible.
+     *
+     * @param name User's name.
+     * @return Optional containing the user, if one exists.
+     */
     Optional<UserEntity> findByName(String name);
 }
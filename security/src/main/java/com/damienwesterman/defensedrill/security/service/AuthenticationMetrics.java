@@ -0,0 +1,176 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.damienwesterman.defensedrill.security.jfr.SecurityEvents.AuthenticationAttemptEvent;
+import com.damienwesterman.defensedrill.security.jfr.SecurityEvents.CookieBuildEvent;
+import com.damienwesterman.defensedrill.security.jfr.SecurityEvents.JwtSignEvent;
+import com.damienwesterman.defensedrill.security.jfr.SecurityEvents.JwtVerifyEvent;
+import com.damienwesterman.defensedrill.security.jfr.SecurityEvents.PasswordVerifyEvent;
+import com.damienwesterman.defensedrill.security.jfr.SecurityEvents.PhaseEvent;
+import com.damienwesterman.defensedrill.security.jfr.SecurityEvents.UserLookupEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Times each phase of authenticating a user under the single {@code security.authentication} timer, tagged
+ * by phase, endpoint and outcome so the phases of one endpoint can be compared directly. Percentile
+ * histograms and SLO buckets for it are configured in application.properties.
+ * <br><br>
+ * The endpoint tag is the matched request mapping pattern of the current request, or "none" when the phase
+ * runs outside of a request.
+ * <br><br>
+ * Every phase is also emitted as a Java Flight Recorder event with the same endpoint and outcome, so a
+ * recording shows the phases of individual slow requests rather than only their distribution.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuthenticationMetrics {
+    public static final String TIMER_NAME = "security.authentication";
+    private static final String NO_ENDPOINT = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public enum Phase {
+        /** A whole login attempt, the other phases happen within it. */
+        ATTEMPT("attempt", AuthenticationAttemptEvent::new),
+        USER_LOOKUP("user_lookup", UserLookupEvent::new),
+        PASSWORD_MATCH("password_match", PasswordVerifyEvent::new),
+        TOKEN_GENERATE("token_generate", JwtSignEvent::new),
+        TOKEN_VERIFY("token_verify", JwtVerifyEvent::new),
+        COOKIE_BUILD("cookie_build", CookieBuildEvent::new);
+
+        private final String tagValue;
+        private final Supplier<PhaseEvent> eventFactory;
+
+        Phase(String tagValue, Supplier<PhaseEvent> eventFactory) {
+            this.tagValue = tagValue;
+            this.eventFactory = eventFactory;
+        }
+
+        public String getTagValue() {
+            return this.tagValue;
+        }
+    }
+
+    public enum Outcome {
+        SUCCESS("success"),
+        BAD_CREDENTIALS("bad_credentials"),
+        UNKNOWN_USER("unknown_user"),
+        INVALID_TOKEN("invalid_token"),
+        /** Valid credentials, but not for what was asked for. */
+        FORBIDDEN("forbidden"),
+        /** Dropped because the caller's deadline had already passed. */
+        DEADLINE_EXCEEDED("deadline_exceeded"),
+        ERROR("error");
+
+        private final String tagValue;
+
+        Outcome(String tagValue) {
+            this.tagValue = tagValue;
+        }
+
+        public String getTagValue() {
+            return this.tagValue;
+        }
+    }
+
+    /**
+     * A phase being timed, returned by {@link AuthenticationMetrics#start(Phase)}.
+     */
+    public record PhaseTimer(Phase phase, Timer.Sample sample, PhaseEvent event) { }
+
+    private record TimerKey(Phase phase, String endpoint, Outcome outcome) { }
+
+    /**
+     * Start timing a phase.
+     *
+     * @param phase Phase to time
+     * @return Timer to pass to {@link #stop(PhaseTimer, Outcome)}
+     */
+    @NonNull
+    public PhaseTimer start(@NonNull Phase phase) {
+        PhaseEvent event = phase.eventFactory.get();
+        event.begin();
+        return new PhaseTimer(phase, Timer.start(meterRegistry), event);
+    }
+
+    /**
+     * Record a finished phase against the current request's endpoint.
+     *
+     * @param timer Timer from {@link #start(Phase)}
+     * @param outcome How the phase ended
+     */
+    public void stop(@NonNull PhaseTimer timer, @NonNull Outcome outcome) {
+        PhaseEvent event = timer.event();
+        event.end();
+
+        String endpoint = currentEndpoint();
+        timer.sample().stop(timers.computeIfAbsent(new TimerKey(timer.phase(), endpoint, outcome), this::register));
+
+        if (event.shouldCommit()) {
+            event.endpoint = endpoint;
+            event.outcome = outcome.getTagValue();
+            event.commit();
+        }
+    }
+
+    private Timer register(TimerKey key) {
+        return Timer.builder(TIMER_NAME)
+            .description("Time spent in each phase of authenticating a user")
+            .tag("phase", key.phase().getTagValue())
+            .tag("endpoint", key.endpoint())
+            .tag("outcome", key.outcome().getTagValue())
+            .register(meterRegistry);
+    }
+
+    @NonNull
+    private static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (null == attributes) {
+            return NO_ENDPOINT;
+        }
+
+        // Use the pattern rather than the path, otherwise every path variable would be its own time series
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+            RequestAttributes.SCOPE_REQUEST);
+        return null == pattern ? NO_ENDPOINT : pattern.toString();
+    }
+}
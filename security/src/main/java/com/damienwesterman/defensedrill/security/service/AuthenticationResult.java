@@ -0,0 +1,57 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.Outcome;
+
+/**
+ * Result of a login attempt, see {@link AuthenticationService}. Failures are shared constants, so a
+ * failed attempt allocates nothing for its result.
+ *
+ * @param outcome How the attempt ended
+ * @param userDetails Authenticated user with the granted authorities, null unless successful
+ */
+public record AuthenticationResult(@NonNull Outcome outcome, @Nullable DrillUserDetails userDetails) {
+    public static final AuthenticationResult BAD_CREDENTIALS =
+        new AuthenticationResult(Outcome.BAD_CREDENTIALS, null);
+    public static final AuthenticationResult UNKNOWN_USER = new AuthenticationResult(Outcome.UNKNOWN_USER, null);
+    /** Valid credentials, but the user does not hold the requested role. */
+    public static final AuthenticationResult FORBIDDEN = new AuthenticationResult(Outcome.FORBIDDEN, null);
+    /** Not checked at all, the caller has already given up on the response. */
+    public static final AuthenticationResult DEADLINE_EXCEEDED =
+        new AuthenticationResult(Outcome.DEADLINE_EXCEEDED, null);
+
+    public static AuthenticationResult success(@NonNull DrillUserDetails userDetails) {
+        return new AuthenticationResult(Outcome.SUCCESS, userDetails);
+    }
+
+    public boolean isSuccess() {
+        return Outcome.SUCCESS == outcome;
+    }
+}
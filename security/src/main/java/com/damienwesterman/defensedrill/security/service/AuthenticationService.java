@@ -0,0 +1,137 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.damienwesterman.defensedrill.security.client.UserRoles;
+import com.damienwesterman.defensedrill.security.deadline.RequestDeadline;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.Phase;
+import com.damienwesterman.defensedrill.security.util.Roles;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Checks login credentials for the login endpoints.
+ * <br><br>
+ * Does what Spring Security's AuthenticationManager did for them, but reports failures as an
+ * {@link AuthenticationResult} instead of throwing: under credential stuffing almost every attempt fails,
+ * and creating and unwinding an exception per attempt was a visible part of the CPU profile. Like
+ * Spring's DaoAuthenticationProvider, an unknown user is still checked against a dummy hash so that
+ * response times do not reveal which usernames exist.
+ * <br><br>
+ * The {@link RequestDeadline} is checked before the user lookup and before the password check, attempts
+ * whose caller has already timed out are dropped and counted under {@code security.deadline.exceeded}.
+ */
+@Service
+public class AuthenticationService {
+    /** Hashed on first use, hashing at startup would cost a BCrypt round for nothing. */
+    private static final String DUMMY_PASSWORD = "userNotFoundPassword";
+
+    private final DrillUserDetailsService userDetailsService;
+    private final PasswordEncoder passwordEncoder;
+    private final Counter expiredBeforeLookup;
+    private final Counter expiredBeforePasswordMatch;
+
+    private volatile String dummyPasswordHash = null;
+
+    public AuthenticationService(DrillUserDetailsService userDetailsService, PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry) {
+        this.userDetailsService = userDetailsService;
+        this.passwordEncoder = passwordEncoder;
+        this.expiredBeforeLookup = deadlineCounter(meterRegistry, Phase.USER_LOOKUP);
+        this.expiredBeforePasswordMatch = deadlineCounter(meterRegistry, Phase.PASSWORD_MATCH);
+    }
+
+    /**
+     * Check a user's credentials.
+     *
+     * @param username Username, may be null
+     * @param password Raw password, may be null
+     * @param requestedRole If not null, only this role (and the roles it implies) is granted
+     * @return Successful result with the granted authorities, or one of the failure constants
+     */
+    @NonNull
+    public AuthenticationResult authenticate(@Nullable String username, @Nullable String password,
+            @Nullable UserRoles requestedRole) {
+        if (RequestDeadline.isExpired()) {
+            expiredBeforeLookup.increment();
+            return AuthenticationResult.DEADLINE_EXCEEDED;
+        }
+
+        DrillUserDetails userDetails = userDetailsService.findUserDetails(username);
+        String presentedPassword = null == password ? "" : password;
+
+        if (RequestDeadline.isExpired()) {
+            expiredBeforePasswordMatch.increment();
+            return AuthenticationResult.DEADLINE_EXCEEDED;
+        }
+
+        if (null == userDetails) {
+            passwordEncoder.matches(presentedPassword, getDummyPasswordHash());
+            return AuthenticationResult.UNKNOWN_USER;
+        }
+
+        if (!passwordEncoder.matches(presentedPassword, userDetails.getPassword())) {
+            return AuthenticationResult.BAD_CREDENTIALS;
+        }
+
+        if (null == requestedRole) {
+            return AuthenticationResult.success(userDetails);
+        }
+
+        Roles grantedRoles = Roles.fromAuthorities(userDetails.getAuthorities()).restrictTo(requestedRole);
+        if (grantedRoles.isEmpty()) {
+            return AuthenticationResult.FORBIDDEN;
+        }
+
+        return AuthenticationResult.success(new DrillUserDetails(userDetails.getUsername(),
+            userDetails.getPassword(), grantedRoles.toAuthorities(), userDetails.getTokenEpoch()));
+    }
+
+    @NonNull
+    private String getDummyPasswordHash() {
+        String hash = dummyPasswordHash;
+        if (null == hash) {
+            hash = passwordEncoder.encode(DUMMY_PASSWORD);
+            dummyPasswordHash = hash;
+        }
+
+        return hash;
+    }
+
+    private static Counter deadlineCounter(MeterRegistry meterRegistry, Phase phase) {
+        return Counter.builder("security.deadline.exceeded")
+            .description("Login attempts dropped because the caller's deadline had passed")
+            .tag("phase", phase.getTagValue())
+            .register(meterRegistry);
+    }
+}
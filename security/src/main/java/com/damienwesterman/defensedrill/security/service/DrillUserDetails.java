@@ -0,0 +1,52 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import lombok.Getter;
+
+/**
+ * UserDetails loaded by {@link DrillUserDetailsService}, along with the user's token epoch read in the same
+ * lookup. Tokens are issued from this snapshot, so a token never pairs the roles of one version of a user
+ * with the epoch of another.
+ */
+@Getter
+public class DrillUserDetails extends User {
+    private static final long serialVersionUID = 1L;
+
+    private final long tokenEpoch;
+
+    public DrillUserDetails(String username, String password, Collection<? extends GrantedAuthority> authorities,
+            long tokenEpoch) {
+        super(username, password, authorities);
+        this.tokenEpoch = tokenEpoch;
+    }
+}
@@ -0,0 +1,160 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import com.damienwesterman.defensedrill.security.entity.UserEntity;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.Outcome;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.Phase;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.PhaseTimer;
+import com.damienwesterman.defensedrill.security.util.SingleFlight;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service class for loading a user's info by their username.
+ * <br><br>
+ * Concurrent lookups of the same username share a single database lookup (see {@link SingleFlight}).
+ * Each caller still gets its own UserDetails, since Spring Security erases the password of the
+ * instance it authenticated. The user's token epoch is read in the same lookup, see
+ * {@link DrillUserDetails}.
+ */
+@Service
+@Slf4j
+public class DrillUserDetailsService implements UserDetailsService {
+    private final UserService userService;
+    private final AuthenticationMetrics metrics;
+    private final SingleFlight<String, Optional<LoadedUser>> lookups = new SingleFlight<>();
+
+    /**
+     * Immutable result of a lookup, safe to share between the callers of a coalesced lookup.
+     */
+    private record LoadedUser(String name, String password, List<GrantedAuthority> authorities,
+        long tokenEpoch) { }
+
+    public DrillUserDetailsService(UserService userService, AuthenticationMetrics metrics,
+            MeterRegistry meterRegistry) {
+        this.userService = userService;
+        this.metrics = metrics;
+        FunctionCounter.builder("security.singleflight.shared", lookups, SingleFlight::getSharedCalls)
+            .description("Calls answered with the result of an identical concurrent call")
+            .tag("operation", "user-lookup")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public DrillUserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        DrillUserDetails userDetails = findUserDetails(username);
+        if (null == userDetails) {
+            throw new UsernameNotFoundException(username);
+        }
+
+        return userDetails;
+    }
+
+    /**
+     * Same as {@link #loadUserByUsername(String)}, but reports an unknown user by returning null rather
+     * than throwing, for the login path where unknown users are routine.
+     *
+     * @param username Username, may be null
+     * @return New UserDetails, null if there is no such user (or their roles or token epoch are invalid)
+     */
+    @Nullable
+    public DrillUserDetails findUserDetails(@Nullable String username) {
+        PhaseTimer timer = metrics.start(Phase.USER_LOOKUP);
+        Outcome outcome = Outcome.ERROR;
+        try {
+            Optional<LoadedUser> optUser = null == username
+                ? Optional.empty()
+                : lookups.execute(username, () -> load(username));
+
+            if (optUser.isEmpty()) {
+                outcome = Outcome.UNKNOWN_USER;
+                return null;
+            }
+
+            LoadedUser user = optUser.get();
+            DrillUserDetails userDetails =
+                new DrillUserDetails(user.name(), user.password(), user.authorities(), user.tokenEpoch());
+            outcome = Outcome.SUCCESS;
+            return userDetails;
+        } finally {
+            metrics.stop(timer, outcome);
+        }
+    }
+
+    @NonNull
+    private Optional<LoadedUser> load(String username) {
+        return userService.find(username)
+            .filter(this::hasValidRoles)
+            .filter(this::hasTokenEpoch)
+            .map(user -> new LoadedUser(user.getName(), user.getPassword(), user.getRoles().toAuthorities(),
+                user.getTokenEpoch()));
+    }
+
+    /**
+     * Check that a user has been granted at least one role, users without any are treated as nonexistent.
+     *
+     * @param user User
+     * @return true if the roles are valid.
+     */
+    private boolean hasValidRoles(@NonNull UserEntity user) {
+        if (null == user.getRoles() || user.getRoles().isEmpty()) {
+            log.error("User <" + user.getName() + "> has invalid roles");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Check that a user's token epoch was loaded. Without one no token could ever be revoked, so such a
+     * user cannot log in.
+     *
+     * @param user User
+     * @return true if the token epoch is present.
+     */
+    private boolean hasTokenEpoch(@NonNull UserEntity user) {
+        if (null == user.getTokenEpoch()) {
+            log.error("User <" + user.getName() + "> has no token epoch");
+            return false;
+        }
+
+        return true;
+    }
+}
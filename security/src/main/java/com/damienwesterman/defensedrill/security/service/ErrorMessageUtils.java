@@ -26,9 +26,9 @@
 
 package com.damienwesterman.defensedrill.security.service;
 
+import java.sql.SQLException;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.function.Supplier;
 
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
@@ -37,6 +37,7 @@ import org.springframework.lang.NonNull;
 
 import com.damienwesterman.defensedrill.security.exception.DatabaseInsertException;
 
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 
 /**
@@ -52,6 +53,17 @@ import jakarta.validation.ConstraintViolationException;
     private final static Map<String, String> constraintErrorMessageMap = Map.ofEntries(
         Map.entry(  "constraint_unique_name",          "Name already exists.")
     );
+    /**
+     * Fallback messages by SQLState (class 22/23 codes shared by postgres and the SQL standard), for
+     * violations whose constraint name is unknown or missing from the map above.
+     */
+    private final static Map<String, String> sqlStateErrorMessageMap = Map.ofEntries(
+        Map.entry(  "23505",    "Value already exists."),
+        Map.entry(  "23502",    "A required value is missing."),
+        Map.entry(  "23503",    "Referenced value does not exist."),
+        Map.entry(  "23514",    "Value is not allowed."),
+        Map.entry(  "22001",    "Value is too long.")
+    );
     private final static String GENERIC_ERROR_MESSAGE = "An error has occurred.";
 
     /**
@@ -60,8 +72,9 @@ import jakarta.validation.ConstraintViolationException;
     private ErrorMessageUtils() { }
 
     /**
-     * Wrapper function to call {@link JpaRepository#save(Object)}. Handles any exception the database might
-     * throw and re-throws it with a user friendly error message.
+     * Wrapper function to call {@link JpaRepository#saveAndFlush(Object)}. Handles any exception the database
+     * might throw and re-throws it with a user friendly error message. The flush makes sure constraint
+     * violations surface here rather than when a surrounding transaction commits.
      *
      * @param <E> E - Database Entity.
      * @param <R> R - {@link JpaRepository} for E entity.
@@ -73,8 +86,21 @@ import jakarta.validation.ConstraintViolationException;
     @NonNull
     public static <E, R extends JpaRepository<E, Long>> E trySave(
             @NonNull E entity, @NonNull R repo) throws DatabaseInsertException {
+        return tryExecute(() -> repo.saveAndFlush(entity));
+    }
+
+    /**
+     * Run a database write operation, such as a modifying query. Handles any exception the database
+     * might throw and re-throws it with a user friendly error message.
+     *
+     * @param <T> T - Result of the operation.
+     * @param operation Database operation to run.
+     * @return The result of the operation.
+     * @throws DatabaseInsertException Thrown when there is any issue with the operation.
+     */
+    public static <T> T tryExecute(@NonNull Supplier<T> operation) throws DatabaseInsertException {
         try {
-            return repo.save(entity);
+            return operation.get();
         } catch (ConstraintViolationException |
                     DataIntegrityViolationException |
                     InvalidDataAccessApiUsageException e) {
@@ -93,61 +119,67 @@ import jakarta.validation.ConstraintViolationException;
     @NonNull
     private static String exceptionToErrorMessage(@NonNull Exception e) {
         if (e instanceof DataIntegrityViolationException) {
-            return sqlExceptionToString(e.getLocalizedMessage());
-        } else if (e instanceof ConstraintViolationException ) {
-            return jakartaExceptionToErrorMessage(e.getLocalizedMessage());
+            return sqlExceptionToString(e);
+        } else if (e instanceof ConstraintViolationException constraintViolationException) {
+            return jakartaExceptionToErrorMessage(constraintViolationException);
         }
 
         return GENERIC_ERROR_MESSAGE;
     }
 
     /**
-     * Convert a database generated exception into a user friendly error message.
+     * Convert a database generated exception into a user friendly error message. Uses the violated
+     * constraint's name when hibernate could determine it, otherwise the kind of violation from the SQLState.
      *
      * @param exception {@link DataIntegrityViolationException}.
      * @return User friendly error message string.
      */
     @NonNull
-    private static String sqlExceptionToString(String exception) {
-        // Need to parse the exception to find the sql named constraint that was violated
-        for (String constraintKey : constraintErrorMessageMap.keySet()) {
-            if (exception.contains(constraintKey)) {
-                // Found the constraint that was violated
-                return constraintErrorMessageMap.get(constraintKey);
+    private static String sqlExceptionToString(@NonNull Exception exception) {
+        String sqlState = null;
+
+        for (Throwable cause = exception.getCause(); null != cause; cause = cause.getCause()) {
+            if (cause instanceof org.hibernate.exception.ConstraintViolationException hibernateException
+                    && null != hibernateException.getConstraintName()) {
+                String message = constraintErrorMessageMap.get(hibernateException.getConstraintName());
+                if (null != message) {
+                    return message;
+                }
+            }
+            if (null == sqlState && cause instanceof SQLException sqlException) {
+                sqlState = sqlException.getSQLState();
             }
         }
 
-        return GENERIC_ERROR_MESSAGE;
+        return null == sqlState
+            ? GENERIC_ERROR_MESSAGE
+            : sqlStateErrorMessageMap.getOrDefault(sqlState, GENERIC_ERROR_MESSAGE);
     }
 
     /**
      * Convert a jakarta generated exception into a user friendly error message.
      *
-     * @param exception {@link ConstraintViolationException} string error message.
+     * @param exception {@link ConstraintViolationException}.
      * @return User friendly error message string.
      */
     @NonNull
-    private static String jakartaExceptionToErrorMessage(String exception) {
-        StringBuilder errorMessage = new StringBuilder();
-
-        // Regular expression pattern to match the property path and interpolated message
-        Pattern pattern = Pattern.compile("interpolatedMessage='(.*?)',.*?propertyPath=(.*?),");
-        Matcher matcher = pattern.matcher(exception);
-
-        while (matcher.find()) {
-            String constraintViolation = matcher.group(1).trim();
-            String propertyInViolation = matcher.group(2).trim();
+    private static String jakartaExceptionToErrorMessage(@NonNull ConstraintViolationException exception) {
+        if (null == exception.getConstraintViolations() || exception.getConstraintViolations().isEmpty()) {
+            return GENERIC_ERROR_MESSAGE;
+        }
 
+        StringBuilder errorMessage = new StringBuilder();
+        for (ConstraintViolation<?> violation : exception.getConstraintViolations()) {
             // Format the error string and capitalize the first letter
-            propertyInViolation = Character.toUpperCase(propertyInViolation.charAt(0)) + propertyInViolation.substring(1);
-            errorMessage.append(propertyInViolation).append(" ").append(constraintViolation).append(". ");
+            String propertyInViolation = violation.getPropertyPath().toString();
+            if (!propertyInViolation.isEmpty()) {
+                errorMessage.append(Character.toUpperCase(propertyInViolation.charAt(0)))
+                    .append(propertyInViolation, 1, propertyInViolation.length())
+                    .append(' ');
+            }
+            errorMessage.append(violation.getMessage()).append(". ");
         }
 
-        if (0 < errorMessage.length()) {
-            return errorMessage.toString();
-        } else {
-            return GENERIC_ERROR_MESSAGE;
-        }
+        return errorMessage.toString();
     }
 }
-
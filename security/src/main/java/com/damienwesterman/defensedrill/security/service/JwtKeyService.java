@@ -0,0 +1,292 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import com.damienwesterman.defensedrill.security.client.PublicKeys;
+import com.damienwesterman.defensedrill.security.service.VaultService.Secret;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caches the JWT signing keys read from {@link VaultService} and keeps them fresh.
+ * <br><br>
+ * Both keys are fetched in parallel on background threads and bounded by
+ * {@code defensedrill.jwt.keys.fetch-timeout}, so neither startup nor the refresh schedule waits on a
+ * hung Vault call. Once
+ * loaded, the keys are re-read in the background before their lease runs out. If Vault is slow or down
+ * the last good keys keep being served and the refresh is retried with backoff. Whenever the keys change,
+ * every subscriber (such as {@link JwtService}) is handed the new keys, so key rotation does not need a
+ * restart.
+ */
+@Service
+@Slf4j
+public class JwtKeyService implements HealthIndicator {
+    /** Refresh once this fraction of the lease has passed. */
+    private static final double LEASE_REFRESH_RATIO = 2.0 / 3.0;
+
+    /**
+     * Parsed signing keys.
+     *
+     * @param publicKey Key used to verify JWTs
+     * @param privateKey Key used to sign JWTs
+     * @param encodedPublicKey Base64 X.509 encoding of the public key, as stored in Vault
+     */
+    public record JwtKeys(PublicKey publicKey, PrivateKey privateKey, String encodedPublicKey) { }
+
+    private final VaultService vaultService;
+    private final Duration refreshInterval;
+    private final Duration minRetryInterval;
+    private final Duration maxRetryInterval;
+    private final Duration fetchTimeout;
+    private final ScheduledExecutorService executor;
+    /** Runs the Vault calls, separate so a call that never returns cannot hold up the refresh schedule. */
+    private final ExecutorService fetchExecutor;
+    private final List<Consumer<JwtKeys>> subscribers = new CopyOnWriteArrayList<>();
+    private final CompletableFuture<JwtKeys> firstKeys = new CompletableFuture<>();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private volatile JwtKeys currentKeys = null;
+    private volatile String lastPublicKey = null;
+    private volatile String lastPrivateKey = null;
+
+    public JwtKeyService(VaultService vaultService,
+            @Value("${defensedrill.jwt.keys.refresh-interval:1h}") Duration refreshInterval,
+            @Value("${defensedrill.jwt.keys.min-retry-interval:1s}") Duration minRetryInterval,
+            @Value("${defensedrill.jwt.keys.max-retry-interval:5m}") Duration maxRetryInterval,
+            @Value("${defensedrill.jwt.keys.fetch-timeout:10s}") Duration fetchTimeout) {
+        this.vaultService = vaultService;
+        this.refreshInterval = refreshInterval;
+        this.minRetryInterval = minRetryInterval;
+        this.maxRetryInterval = maxRetryInterval;
+        this.fetchTimeout = fetchTimeout;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwt-key-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadCount = new AtomicInteger();
+        // One thread per key, a hung fetch is interrupted on timeout instead of piling up more threads
+        this.fetchExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "jwt-key-fetch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        executor.execute(this::refresh);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        fetchExecutor.shutdownNow();
+    }
+
+    /**
+     * Get the current keys without waiting.
+     *
+     * @return Current keys, null if they have not been loaded yet
+     */
+    @Nullable
+    public JwtKeys getKeys() {
+        return currentKeys;
+    }
+
+    /**
+     * Get the current keys, waiting for the first load from Vault if it has not completed yet.
+     *
+     * @param timeout How long to wait for the first load
+     * @return Current keys
+     * @throws IllegalStateException If the keys could not be loaded in time
+     */
+    @NonNull
+    public JwtKeys awaitKeys(@NonNull Duration timeout) throws IllegalStateException {
+        JwtKeys keys = currentKeys;
+        if (null != keys) {
+            return keys;
+        }
+
+        try {
+            return firstKeys.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for JWT keys", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("JWT keys are not available yet", e);
+        }
+    }
+
+    /**
+     * Subscribe to key changes. The subscriber is called straight away if keys are already loaded, and
+     * then on every change.
+     *
+     * @param subscriber Called with the new keys
+     */
+    public void subscribe(@NonNull Consumer<JwtKeys> subscriber) {
+        subscribers.add(subscriber);
+
+        JwtKeys keys = currentKeys;
+        if (null != keys) {
+            subscriber.accept(keys);
+        }
+    }
+
+    @Override
+    public Health health() {
+        if (null == currentKeys) {
+            return Health.outOfService().withDetail("reason", "JWT keys not loaded from Vault yet").build();
+        }
+
+        return Health.up().withDetail("consecutiveRefreshFailures", consecutiveFailures.get()).build();
+    }
+
+    /**
+     * Read both keys from Vault in parallel, publish them if they changed and schedule the next refresh.
+     */
+    private void refresh() {
+        Duration nextRefresh;
+        Future<Secret> publicKey = null;
+        Future<Secret> privateKey = null;
+        try {
+            publicKey = fetchExecutor.submit(vaultService::getJwtPublicKey);
+            privateKey = fetchExecutor.submit(vaultService::getJwtPrivateKey);
+            // One deadline for both, they run in parallel
+            long deadline = System.nanoTime() + fetchTimeout.toNanos();
+            Secret fetchedPublicKey = publicKey.get(fetchTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            Secret fetchedPrivateKey =
+                privateKey.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+            update(fetchedPublicKey.value(), fetchedPrivateKey.value());
+            consecutiveFailures.set(0);
+            nextRefresh = nextRefreshFor(fetchedPublicKey.leaseDuration(), fetchedPrivateKey.leaseDuration());
+        } catch (Exception e) {
+            int failures = consecutiveFailures.incrementAndGet();
+            nextRefresh = retryIntervalFor(failures);
+            // Keep serving whatever we had last, it is still the best we have
+            log.warn("Failed to refresh JWT keys from Vault (attempt " + failures + "), retrying in "
+                + nextRefresh + ": " + e.getMessage());
+        } finally {
+            // Frees the fetch threads if they are still waiting on Vault
+            cancel(publicKey);
+            cancel(privateKey);
+        }
+
+        if (!executor.isShutdown()) {
+            executor.schedule(this::refresh, nextRefresh.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void cancel(@Nullable Future<?> future) {
+        if (null != future) {
+            future.cancel(true);
+        }
+    }
+
+    private void update(String encodedPublicKey, String encodedPrivateKey) {
+        if (encodedPublicKey.equals(lastPublicKey) && encodedPrivateKey.equals(lastPrivateKey)) {
+            return;
+        }
+
+        JwtKeys keys = new JwtKeys(
+            PublicKeys.parse(encodedPublicKey),
+            parsePrivateKey(encodedPrivateKey),
+            encodedPublicKey
+        );
+        lastPublicKey = encodedPublicKey;
+        lastPrivateKey = encodedPrivateKey;
+        currentKeys = keys;
+        firstKeys.complete(keys);
+        log.info("Loaded JWT keys from Vault");
+
+        for (Consumer<JwtKeys> subscriber : subscribers) {
+            try {
+                subscriber.accept(keys);
+            } catch (RuntimeException e) {
+                log.error("JWT key subscriber failed", e);
+            }
+        }
+    }
+
+    Duration nextRefreshFor(Duration publicKeyLease, Duration privateKeyLease) {
+        Duration lease = publicKeyLease.compareTo(privateKeyLease) < 0 ? publicKeyLease : privateKeyLease;
+        if (lease.isZero() || lease.isNegative()) {
+            // No lease, just check back periodically in case the secret was rotated
+            return refreshInterval;
+        }
+
+        Duration beforeExpiry = Duration.ofMillis((long) (lease.toMillis() * LEASE_REFRESH_RATIO));
+        return beforeExpiry.compareTo(minRetryInterval) < 0 ? minRetryInterval : beforeExpiry;
+    }
+
+    Duration retryIntervalFor(int failures) {
+        Duration backoff = minRetryInterval.multipliedBy(1L << Math.min(failures - 1, 20));
+        return backoff.compareTo(maxRetryInterval) > 0 ? maxRetryInterval : backoff;
+    }
+
+    private static PrivateKey parsePrivateKey(String encodedKey) {
+        byte[] decodedKey = Base64.getDecoder().decode(encodedKey);
+        PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(decodedKey);
+        try {
+            return KeyFactory.getInstance("RSA").generatePrivate(spec);
+        } catch (InvalidKeySpecException | NoSuchAlgorithmException e) {
+            log.error("Error during private key generation", e);
+            throw new RuntimeException(e);
+        }
+    }
+}
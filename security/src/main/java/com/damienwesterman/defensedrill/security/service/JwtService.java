@@ -0,0 +1,342 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import com.damienwesterman.defensedrill.security.client.TokenCheck;
+import com.damienwesterman.defensedrill.security.client.TokenClaims;
+import com.damienwesterman.defensedrill.security.client.TokenRejection;
+import com.damienwesterman.defensedrill.security.client.TokenVerifier;
+import com.damienwesterman.defensedrill.security.client.UserRoles;
+import com.damienwesterman.defensedrill.security.client.VerifiedToken;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.Outcome;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.Phase;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.PhaseTimer;
+import com.damienwesterman.defensedrill.security.service.JwtKeyService.JwtKeys;
+import com.damienwesterman.defensedrill.security.util.Roles;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Service class for JWT interaction. Provides methods to generate, check, and interpret JWT.
+ * <br><br>
+ * Signing keys come from {@link JwtKeyService}, which pushes new keys here whenever they are rotated.
+ * Verification is done by the same {@link TokenVerifier} other services embed from the security-client
+ * module, so a token is checked identically everywhere.
+ * <br><br>
+ * With {@code defensedrill.jwt.reuse.enabled=true}, a user logging in again is handed the token they were
+ * last issued, byte for byte, as long as their roles and token epoch are unchanged and more than
+ * {@code defensedrill.jwt.reuse.min-remaining} of its lifetime is left. This spares clients that log in
+ * on every app resume an RSA signature per login, the credentials are still checked every time.
+ */
+@Service
+public class JwtService implements TokenIssuer {
+    private static final long MILLIS_VALID_USER = TimeUnit.DAYS.toMillis(31);
+    private static final long MILLIS_VALID_ADMIN = TimeUnit.MINUTES.toMillis(30);
+
+    private final JwtKeyService jwtKeyService;
+    private final AuthenticationMetrics metrics;
+    private final TokenEpochs tokenEpochs;
+    private final Duration keyWaitTimeout;
+
+    private final TokenVerifier tokenVerifier;
+    private final Map<TokenRejection, Counter> rejections = new EnumMap<>(TokenRejection.class);
+    private final Counter revocations;
+    /** Null unless token reuse is enabled. */
+    @Nullable
+    private final Cache<ReuseKey, ReusableToken> reusableTokens;
+    private final double reusableFraction;
+
+    private volatile JwtKeys keys = null;
+
+    /**
+     * Everything that goes into a token besides its timestamps, including the keys it was signed with: a
+     * login racing a key rotation may sign with the old keys after the cache was cleared, that token must
+     * not match once the new keys are in use. Roles instances are interned.
+     */
+    private record ReuseKey(String username, Roles roles, long epoch, JwtKeys keys) { }
+
+    /**
+     * @param jwt Issued token
+     * @param reusableUntil Epoch millis after which too little of its lifetime is left to hand it out again
+     */
+    private record ReusableToken(String jwt, long reusableUntil) { }
+
+    public JwtService(JwtKeyService jwtKeyService, AuthenticationMetrics metrics, TokenEpochs tokenEpochs,
+            MeterRegistry meterRegistry,
+            @Value("${defensedrill.jwt.keys.wait-timeout:10s}") Duration keyWaitTimeout,
+            @Value("${defensedrill.jwt.reuse.enabled:false}") boolean reuseEnabled,
+            @Value("${defensedrill.jwt.reuse.min-remaining:0.5}") double reuseMinRemaining,
+            @Value("${defensedrill.jwt.reuse.max-entries:10000}") long reuseMaxEntries) {
+        if (reuseMinRemaining <= 0 || reuseMinRemaining >= 1) {
+            throw new IllegalArgumentException("defensedrill.jwt.reuse.min-remaining must be between 0 and 1");
+        }
+
+        this.jwtKeyService = jwtKeyService;
+        this.metrics = metrics;
+        this.tokenEpochs = tokenEpochs;
+        this.keyWaitTimeout = keyWaitTimeout;
+        this.tokenVerifier = new TokenVerifier(() -> getKeys().publicKey());
+        for (TokenRejection rejection : TokenRejection.values()) {
+            rejections.put(rejection, rejectionCounter(meterRegistry, rejection.name().toLowerCase(Locale.ROOT)));
+        }
+        this.revocations = rejectionCounter(meterRegistry, "revoked");
+        this.reusableFraction = 1 - reuseMinRemaining;
+        if (reuseEnabled) {
+            this.reusableTokens = Caffeine.newBuilder()
+                .maximumSize(reuseMaxEntries)
+                .expireAfter(new ReuseExpiry())
+                .recordStats()
+                .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, reusableTokens, "reusable-tokens");
+        } else {
+            this.reusableTokens = null;
+        }
+        jwtKeyService.subscribe(this::onKeysChanged);
+    }
+
+    /**
+     * Check if a JWT is valid.
+     *
+     * @param jwt String JWT
+     * @return true/false if the token is valid
+     */
+    public boolean isTokenValid(String jwt) {
+        return null != verify(jwt);
+    }
+
+    /**
+     * Extract a user's username from a JWT.
+     *
+     * @param jwt String JWT
+     * @return Username
+     */
+    @NonNull
+    public String extractUsername(String jwt) {
+        return Optional.ofNullable(verify(jwt))
+            .map(VerifiedToken::username)
+            .orElse("");
+    }
+
+    /**
+     * Extract a user's roles from a JWT.
+     *
+     * @param jwt String JWT
+     * @return Roles, {@link Roles#NONE} if the JWT is invalid
+     */
+    @NonNull
+    public Roles extractRoles(String jwt) {
+        return Optional.ofNullable(verify(jwt))
+            .map(token -> toRoles(token.roles()))
+            .orElse(Roles.NONE);
+    }
+
+    /**
+     * Get a long value of the milliseconds a JWT [cookie] should be valid from
+     * a user's roles.
+     *
+     * @param roles User's roles
+     * @return Long of the milliseconds a user's JWT should be valid, 0 on error
+     */
+    public long getMillisValid(Roles roles) {
+        if (null != roles) {
+            // Check in descending order of millis valid, most restrictive when possible
+            if (roles.grants(UserRoles.ADMIN)) {
+                return MILLIS_VALID_ADMIN;
+            } else if (roles.grants(UserRoles.USER)) {
+                return MILLIS_VALID_USER;
+            }
+        }
+
+        return 0;
+    }
+
+    @Override
+    @NonNull
+    public String issueToken(DrillUserDetails userDetails) {
+        return generateToken(userDetails);
+    }
+
+    /**
+     * Generate a string JWT from a UserDetails object, or hand out the previously issued one if token
+     * reuse is enabled and it is still fresh enough.
+     *
+     * @param userDetails UserDetails object
+     * @return String containing the generated JWT
+     */
+    @NonNull
+    public String generateToken(DrillUserDetails userDetails) {
+        PhaseTimer timer = metrics.start(Phase.TOKEN_GENERATE);
+        Outcome outcome = Outcome.ERROR;
+        try {
+            Roles roles = Roles.fromAuthorities(userDetails.getAuthorities());
+            long epoch = userDetails.getTokenEpoch();
+            // Read once, the token must be signed with the same keys it is cached under
+            JwtKeys signingKeys = getKeys();
+
+            ReuseKey reuseKey = null;
+            if (null != reusableTokens) {
+                reuseKey = new ReuseKey(userDetails.getUsername(), roles, epoch, signingKeys);
+                ReusableToken reusable = reusableTokens.getIfPresent(reuseKey);
+                if (null != reusable) {
+                    outcome = Outcome.SUCCESS;
+                    return reusable.jwt();
+                }
+            }
+
+            Map<String, Object> claims = new HashMap<>();
+            claims.put("iss", TokenClaims.ISSUER);
+            claims.put(TokenClaims.ROLES, roles.toAuthorityString());
+            claims.put(TokenClaims.TOKEN_EPOCH, epoch);
+
+            Instant now = Instant.now();
+            long millisValid = getMillisValid(roles);
+            String jwt = Jwts.builder()
+                .claims(claims)
+                .subject(userDetails.getUsername())
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plusMillis(millisValid)))
+                .signWith(signingKeys.privateKey())
+                .compact();
+
+            if (null != reuseKey && 0 < millisValid) {
+                long reusableUntil = now.toEpochMilli() + (long) (millisValid * reusableFraction);
+                reusableTokens.put(reuseKey, new ReusableToken(jwt, reusableUntil));
+            }
+            outcome = Outcome.SUCCESS;
+            return jwt;
+        } finally {
+            metrics.stop(timer, outcome);
+        }
+    }
+
+    /**
+     * Verify a JWT's signature, issuer and expiration. May return null on error.
+     *
+     * @param jwt String JWT
+     * @return Verified contents of the token, null if it is not valid
+     */
+    @Override
+    @Nullable
+    public VerifiedToken verify(String jwt) {
+        PhaseTimer timer = metrics.start(Phase.TOKEN_VERIFY);
+        Outcome outcome = Outcome.INVALID_TOKEN;
+        try {
+            // Bad tokens are routine (stale cookies, scanners), they are counted rather than logged
+            TokenCheck check = tokenVerifier.check(jwt);
+            if (!check.isVerified()) {
+                rejections.get(check.rejection()).increment();
+                return null;
+            }
+
+            if (!tokenEpochs.isCurrent(check.token())) {
+                // The user changed (or was deleted) since this token was issued
+                revocations.increment();
+                return null;
+            }
+            outcome = Outcome.SUCCESS;
+            return check.token();
+        } finally {
+            metrics.stop(timer, outcome);
+        }
+    }
+
+    private void onKeysChanged(JwtKeys keys) {
+        this.keys = keys;
+        if (null != reusableTokens) {
+            // Tokens signed with the old key no longer verify, and could no longer be looked up anyway
+            reusableTokens.invalidateAll();
+        }
+    }
+
+    @NonNull
+    private JwtKeys getKeys() {
+        JwtKeys current = keys;
+        if (null == current) {
+            // Still starting up, give the first read from Vault a chance to finish
+            current = jwtKeyService.awaitKeys(keyWaitTimeout);
+            keys = current;
+        }
+
+        return current;
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("security.token.rejected")
+            .description("JWTs that were not accepted, by reason")
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Drops a token from the cache once it is no longer fresh enough to be reused.
+     */
+    private static class ReuseExpiry implements Expiry<ReuseKey, ReusableToken> {
+        @Override
+        public long expireAfterCreate(ReuseKey key, ReusableToken token, long currentTime) {
+            long millisLeft = Math.max(0, token.reusableUntil() - System.currentTimeMillis());
+            return TimeUnit.MILLISECONDS.toNanos(millisLeft);
+        }
+
+        @Override
+        public long expireAfterUpdate(ReuseKey key, ReusableToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ReuseKey key, ReusableToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    @NonNull
+    private static Roles toRoles(Set<UserRoles> roles) {
+        return Roles.of(roles.toArray(new UserRoles[0]));
+    }
+}
@@ -0,0 +1,139 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.damienwesterman.defensedrill.security.util.MpscRingBuffer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records successful logins (last login time and login count per user) without slowing down the login
+ * itself.
+ * <br><br>
+ * The request thread only drops an event into a lock-free ring buffer. A scheduled writer drains the
+ * buffer, coalesces the events per user and writes them with a single batched UPDATE, so database
+ * writes scale with the number of distinct users that logged in, not the number of logins. If the
+ * buffer is ever full the event is dropped and counted, a login is never held up for bookkeeping.
+ */
+@Service
+@Slf4j
+public class LoginJournalService {
+    private static final String UPDATE_LOGIN_SQL =
+        "UPDATE users SET last_login = GREATEST(last_login, ?), login_count = login_count + ? WHERE name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MpscRingBuffer<LoginEvent> buffer;
+    private final Counter droppedEvents;
+    private final Counter flushedUsers;
+
+    public LoginJournalService(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+            @Value("${defensedrill.login-journal.capacity:65536}") int capacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.droppedEvents = Counter.builder("security.login.journal.dropped")
+            .description("Login events dropped because the journal buffer was full")
+            .register(meterRegistry);
+        this.flushedUsers = Counter.builder("security.login.journal.flushed")
+            .description("Per user rows written by the login journal")
+            .register(meterRegistry);
+        Gauge.builder("security.login.journal.pending", buffer, MpscRingBuffer::size)
+            .description("Login events waiting to be written")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Record a successful login. Never blocks.
+     *
+     * @param username Name of the user that logged in.
+     */
+    public void recordLogin(@NonNull String username) {
+        if (!buffer.offer(new LoginEvent(username, System.currentTimeMillis()))) {
+            droppedEvents.increment();
+        }
+    }
+
+    /**
+     * Write all pending login events to the database.
+     */
+    @Scheduled(fixedDelayString = "${defensedrill.login-journal.flush-interval:5s}")
+    public void flush() {
+        Map<String, LoginSummary> summaries = new HashMap<>();
+        buffer.drain(event -> summaries
+            .computeIfAbsent(event.username(), username -> new LoginSummary())
+            .add(event.timestampMillis()));
+
+        if (summaries.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(summaries.size());
+        summaries.forEach((username, summary) -> batch.add(new Object[] {
+            new Timestamp(summary.lastLoginMillis), summary.count, username
+        }));
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_LOGIN_SQL, batch);
+            flushedUsers.increment(batch.size());
+        } catch (RuntimeException e) {
+            // Login tracking is best effort, don't let a database hiccup kill the scheduled writer
+            log.error("Failed to write " + batch.size() + " login journal entries", e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private record LoginEvent(String username, long timestampMillis) { }
+
+    private static class LoginSummary {
+        private long lastLoginMillis = Long.MIN_VALUE;
+        private long count = 0;
+
+        void add(long timestampMillis) {
+            lastLoginMillis = Math.max(lastLoginMillis, timestampMillis);
+            count++;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.damienwesterman.defensedrill.security.client.UserRoles;
+import com.damienwesterman.defensedrill.security.util.Roles;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Seeds the database with synthetic users for performance testing. Users are named
+ * {@code defensedrill.perf.users.prefix} followed by a zero padded number starting at 1, all share the
+ * password {@code defensedrill.perf.users.password} and have the USER role. Existing users are left
+ * alone, so restarting against the same database is cheap.
+ */
+@Profile("perf")
+@Service
+@Slf4j
+public class PerfUserSeeder implements ApplicationRunner {
+    private static final String INSERT_USER_SQL =
+        "INSERT INTO users (name, password, roles) VALUES (?, ?, ?) ON CONFLICT (name) DO NOTHING";
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final int userCount;
+    private final String prefix;
+    private final String password;
+
+    public PerfUserSeeder(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder,
+            @Value("${defensedrill.perf.users.count:10000}") int userCount,
+            @Value("${defensedrill.perf.users.prefix:perfuser}") String prefix,
+            @Value("${defensedrill.perf.users.password:perfpassword}") String password) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.userCount = userCount;
+        this.prefix = prefix;
+        this.password = password;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (0 >= userCount) {
+            return;
+        }
+
+        // BCrypt is deliberately slow, every user gets the same hash instead of userCount of them
+        String encodedPassword = passwordEncoder.encode(password);
+        String roles = Roles.of(UserRoles.USER).toString();
+        int inserted = 0;
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= userCount; i++) {
+            batch.add(new Object[] { username(i), encodedPassword, roles });
+            if (BATCH_SIZE == batch.size() || userCount == i) {
+                for (int rows : jdbcTemplate.batchUpdate(INSERT_USER_SQL, batch)) {
+                    inserted += Math.max(rows, 0);
+                }
+                batch.clear();
+            }
+        }
+
+        log.info("Seeded " + inserted + " new of " + userCount + " perf users (" + username(1) + " ... "
+            + username(userCount) + ")");
+    }
+
+    private String username(int number) {
+        return String.format("%s%07d", prefix, number);
+    }
+}
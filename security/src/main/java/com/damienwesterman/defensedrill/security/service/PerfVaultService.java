@@ -0,0 +1,70 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+/**
+ * Performance testing stand in for the HashiCorp Vault KMS. Generates a fresh RSA key pair on startup, so
+ * tokens signed by one run are never valid for another.
+ */
+@Profile("perf")
+@Service
+public class PerfVaultService implements VaultService {
+    private final Secret publicKey;
+    private final Secret privateKey;
+
+    public PerfVaultService() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+
+        Base64.Encoder encoder = Base64.getEncoder();
+        this.publicKey = new Secret(encoder.encodeToString(keyPair.getPublic().getEncoded()), Duration.ZERO);
+        this.privateKey = new Secret(encoder.encodeToString(keyPair.getPrivate().getEncoded()), Duration.ZERO);
+    }
+
+    @Override
+    @NonNull
+    public Secret getJwtPublicKey() {
+        return publicKey;
+    }
+
+    @Override
+    @NonNull
+    public Secret getJwtPrivateKey() {
+        return privateKey;
+    }
+}
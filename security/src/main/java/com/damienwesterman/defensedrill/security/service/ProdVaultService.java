@@ -26,6 +26,8 @@
 
 package com.damienwesterman.defensedrill.security.service;
 
+import java.time.Duration;
+
 import org.springframework.context.annotation.Profile;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
@@ -44,25 +46,31 @@ public class ProdVaultService implements VaultService {
 
     @Override
     @NonNull
-	public String getJwtPublicKey() {
+	public Secret getJwtPublicKey() {
         VaultResponse response = vaultTemplate.read(VAULT_ENDPOINT_JWT_PUBLIC_KEY);
 
         if (null == response || null == response.getData()) {
-            throw new RuntimeException("Failed to get public key from vault, please check Vault and restart server");
+            throw new RuntimeException("Failed to get public key from vault, please check Vault");
         }
 
-        return (String) response.getData().get(VAULT_KEY_JWT_PUBLIC_KEY);
+        return new Secret(
+            (String) response.getData().get(VAULT_KEY_JWT_PUBLIC_KEY),
+            Duration.ofSeconds(response.getLeaseDuration())
+        );
 	}
 
     @Override
     @NonNull
-    public String getJwtPrivateKey() {
+    public Secret getJwtPrivateKey() {
         VaultResponse response = vaultTemplate.read(VAULT_ENDPOINT_JWT_PRIVATE_KEY);
 
         if (null == response || null == response.getData()) {
-            throw new RuntimeException("Failed to get private key from vault, please check Vault and restart server");
+            throw new RuntimeException("Failed to get private key from vault, please check Vault");
         }
 
-        return (String) response.getData().get(VAULT_KEY_JWT_PRIVATE_KEY);
+        return new Secret(
+            (String) response.getData().get(VAULT_KEY_JWT_PRIVATE_KEY),
+            Duration.ofSeconds(response.getLeaseDuration())
+        );
     }
 }
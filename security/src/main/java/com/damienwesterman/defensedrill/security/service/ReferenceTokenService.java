@@ -0,0 +1,308 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.damienwesterman.defensedrill.security.client.TokenClaims;
+import com.damienwesterman.defensedrill.security.client.VerifiedToken;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.Outcome;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.Phase;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.PhaseTimer;
+import com.damienwesterman.defensedrill.security.util.Roles;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Issues opaque reference tokens instead of JWTs, enabled with {@code defensedrill.token.mode=reference}.
+ * <br><br>
+ * A token is 24 random bytes (32 characters base64url) mapping to the user's name, roles and expiration in
+ * a bounded in-memory store, so checking one is a hash lookup instead of an RSA signature check, and a
+ * token can be revoked (e.g. on logout). Entries expire with the token, validity per role is the same as
+ * for JWTs.
+ * <br><br>
+ * With {@code defensedrill.token.reference.persistent=true} tokens are also written to the
+ * reference_tokens table (only a SHA-256 hash of the token is stored), so they survive restarts and can be
+ * resolved by every node. The table is then the authority: every entry, whether issued by this node or
+ * loaded from the table, is only kept in memory for {@code defensedrill.token.reference.remote-ttl} before
+ * being read again, which bounds how long a node keeps accepting a token revoked on another node. Anything
+ * that is not shaped like a reference token is rejected without a query, and tokens the table does not
+ * know are remembered as unknown for the same time, so junk sent to {@code POST /token/introspect} cannot
+ * be turned into database load.
+ * <br><br>
+ * Services verifying tokens themselves (e.g. the gateway) cannot do so locally in this mode, they must use
+ * {@code POST /token/introspect}.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "defensedrill.token.mode", havingValue = "reference")
+@Slf4j
+public class ReferenceTokenService implements TokenIssuer {
+    private static final int TOKEN_BYTES = 24;
+    /** Base64url without padding. */
+    private static final int TOKEN_LENGTH = 32;
+    private static final String INSERT_SQL =
+        "INSERT INTO reference_tokens (token_hash, username, roles, issued_at, expires_at, token_epoch) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_SQL =
+        "SELECT username, roles, issued_at, expires_at, token_epoch FROM reference_tokens "
+            + "WHERE token_hash = ? AND expires_at > ?";
+    private static final String DELETE_SQL = "DELETE FROM reference_tokens WHERE token_hash = ?";
+    private static final String DELETE_EXPIRED_SQL = "DELETE FROM reference_tokens WHERE expires_at <= ?";
+
+    private final JwtService jwtService;
+    private final AuthenticationMetrics metrics;
+    private final TokenEpochs tokenEpochs;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean persistent;
+    private final SecureRandom random = new SecureRandom();
+    private final Cache<String, VerifiedToken> sessions;
+    /** Tokens recently not found in the table, null if not persistent. */
+    private final Cache<String, Boolean> unknownTokens;
+
+    public ReferenceTokenService(JwtService jwtService, AuthenticationMetrics metrics, TokenEpochs tokenEpochs,
+            JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+            @Value("${defensedrill.token.reference.max-sessions:100000}") long maxSessions,
+            @Value("${defensedrill.token.reference.persistent:false}") boolean persistent,
+            @Value("${defensedrill.token.reference.remote-ttl:30s}") Duration remoteTtl) {
+        this.jwtService = jwtService;
+        this.metrics = metrics;
+        this.tokenEpochs = tokenEpochs;
+        this.jdbcTemplate = jdbcTemplate;
+        this.persistent = persistent;
+        this.sessions = Caffeine.newBuilder()
+            .maximumSize(maxSessions)
+            .expireAfter(new SessionExpiry(persistent ? remoteTtl : null))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, "reference-tokens");
+        this.unknownTokens = !persistent ? null : Caffeine.newBuilder()
+            .maximumSize(maxSessions)
+            .expireAfterWrite(remoteTtl)
+            .build();
+    }
+
+    @Override
+    @NonNull
+    public String issueToken(DrillUserDetails userDetails) {
+        PhaseTimer timer = metrics.start(Phase.TOKEN_GENERATE);
+        Outcome outcome = Outcome.ERROR;
+        try {
+            Roles roles = Roles.fromAuthorities(userDetails.getAuthorities());
+            Instant issuedAt = Instant.now();
+            VerifiedToken verifiedToken = new VerifiedToken(
+                userDetails.getUsername(),
+                TokenClaims.decodeRoles(roles.toAuthorityString()),
+                issuedAt,
+                issuedAt.plusMillis(jwtService.getMillisValid(roles)),
+                userDetails.getTokenEpoch()
+            );
+
+            byte[] bytes = new byte[TOKEN_BYTES];
+            random.nextBytes(bytes);
+            String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+            if (persistent) {
+                jdbcTemplate.update(INSERT_SQL,
+                    hash(token),
+                    verifiedToken.username(),
+                    roles.toAuthorityString(),
+                    Timestamp.from(verifiedToken.issuedAt()),
+                    Timestamp.from(verifiedToken.expiresAt()),
+                    verifiedToken.tokenEpoch());
+            }
+            sessions.put(token, verifiedToken);
+
+            outcome = Outcome.SUCCESS;
+            return token;
+        } finally {
+            metrics.stop(timer, outcome);
+        }
+    }
+
+    @Override
+    @Nullable
+    public VerifiedToken verify(String token) {
+        PhaseTimer timer = metrics.start(Phase.TOKEN_VERIFY);
+        Outcome outcome = Outcome.INVALID_TOKEN;
+        try {
+            if (!isWellFormed(token)) {
+                // Garbage, or a JWT from before switching modes
+                return null;
+            }
+
+            VerifiedToken verifiedToken = sessions.getIfPresent(token);
+            if (null == verifiedToken && persistent) {
+                verifiedToken = load(token);
+            }
+            if (null == verifiedToken || !verifiedToken.expiresAt().isAfter(Instant.now())
+                    || !tokenEpochs.isCurrent(verifiedToken)) {
+                return null;
+            }
+
+            outcome = Outcome.SUCCESS;
+            return verifiedToken;
+        } finally {
+            metrics.stop(timer, outcome);
+        }
+    }
+
+    @Override
+    public void revoke(String token) {
+        if (!isWellFormed(token)) {
+            // Could never have been issued, so there is nothing to revoke
+            return;
+        }
+
+        sessions.invalidate(token);
+        if (persistent) {
+            jdbcTemplate.update(DELETE_SQL, hash(token));
+        }
+    }
+
+    /**
+     * Remove expired tokens from the table, the in-memory store expires them by itself.
+     */
+    @Scheduled(fixedDelayString = "${defensedrill.token.reference.cleanup-interval:10m}")
+    public void deleteExpired() {
+        if (!persistent) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.update(DELETE_EXPIRED_SQL, Timestamp.from(Instant.now()));
+        } catch (RuntimeException e) {
+            // Expired rows are never accepted anyway, try again next time
+            log.error("Failed to delete expired reference tokens", e);
+        }
+    }
+
+    @Nullable
+    private VerifiedToken load(String token) {
+        if (null != unknownTokens.getIfPresent(token)) {
+            return null;
+        }
+
+        List<VerifiedToken> found = jdbcTemplate.query(SELECT_SQL,
+            (rs, rowNum) -> new VerifiedToken(
+                rs.getString("username"),
+                TokenClaims.decodeRoles(rs.getString("roles")),
+                rs.getTimestamp("issued_at").toInstant(),
+                rs.getTimestamp("expires_at").toInstant(),
+                rs.getObject("token_epoch", Long.class)),
+            hash(token), Timestamp.from(Instant.now()));
+        if (found.isEmpty()) {
+            unknownTokens.put(token, true);
+            return null;
+        }
+
+        VerifiedToken verifiedToken = found.get(0);
+        sessions.put(token, verifiedToken);
+        return verifiedToken;
+    }
+
+    private static boolean isWellFormed(String token) {
+        if (null == token || TOKEN_LENGTH != token.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < TOKEN_LENGTH; i++) {
+            char c = token.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || '-' == c || '_' == c)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Keeps an entry until its token expires, or for at most the remote TTL when tokens are persisted.
+     */
+    private static class SessionExpiry implements Expiry<String, VerifiedToken> {
+        private final long remoteTtlNanos;
+
+        /**
+         * @param remoteTtl Longest an entry is kept before the table is read again, null if not persistent
+         */
+        SessionExpiry(@Nullable Duration remoteTtl) {
+            this.remoteTtlNanos = null == remoteTtl ? Long.MAX_VALUE : remoteTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken verifiedToken, long currentTime) {
+            long untilExpiry = Math.max(0, Duration.between(Instant.now(), verifiedToken.expiresAt()).toNanos());
+            return Math.min(untilExpiry, remoteTtlNanos);
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken verifiedToken, long currentTime,
+                long currentDuration) {
+            return expireAfterCreate(token, verifiedToken, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedToken verifiedToken, long currentTime,
+                long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import com.damienwesterman.defensedrill.security.client.VerifiedToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory copy of every user's token epoch (the users.token_epoch column), used to reject tokens issued
+ * before the user was last changed without a database query per verification.
+ * <br><br>
+ * Loaded in full on first use, then kept current by {@link UserInvalidatedEvent}s, which re-read just the
+ * changed users in one query. Those events cover changes made on this node and, via
+ * {@link UserCacheCoherence}, on every other node. Tokens are checked by subject, so renaming or deleting a
+ * user revokes their tokens as well.
+ * <br><br>
+ * Names of deleted and renamed users, and names the database did not know, are remembered as missing for a
+ * while, so a revoked token presented over and over does not cost a query each time.
+ */
+@Service
+@Slf4j
+public class TokenEpochs {
+    private static final String SELECT_ALL_SQL = "SELECT id, name, token_epoch FROM users";
+    private static final String SELECT_BY_IDS_SQL = "SELECT id, name, token_epoch FROM users WHERE id IN (%s)";
+    private static final String SELECT_BY_NAME_SQL = "SELECT id, name, token_epoch FROM users WHERE name = ?";
+    private static final Duration MISSING_TTL = Duration.ofMinutes(1);
+    private static final long MAX_MISSING_NAMES = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Replaced as a whole on a full reload, changes to listed users are applied in place. */
+    private volatile Epochs epochs = null;
+    /** Bumped under the monitor by every change, so a lookup can tell that it raced with one. */
+    private long changes = 0;
+
+    private record UserEpoch(long id, String name, long epoch) { }
+
+    private static final RowMapper<UserEpoch> USER_EPOCH_MAPPER =
+        (rs, rowNum) -> new UserEpoch(rs.getLong("id"), rs.getString("name"), rs.getLong("token_epoch"));
+
+    private record Epochs(Map<String, Long> byName, Map<Long, String> namesById, Cache<String, Boolean> missing) {
+        Epochs() {
+            this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), Caffeine.newBuilder()
+                .expireAfterWrite(MISSING_TTL)
+                .maximumSize(MAX_MISSING_NAMES)
+                .build());
+        }
+
+        void put(UserEpoch user) {
+            String oldName = namesById.put(user.id(), user.name());
+            if (null != oldName && !oldName.equals(user.name())) {
+                byName.remove(oldName);
+                missing.put(oldName, true);
+            }
+            // Epochs only ever grow, never let a read that raced with an update move one back
+            byName.merge(user.name(), user.epoch(), Math::max);
+            missing.invalidate(user.name());
+        }
+
+        void remove(long id) {
+            String oldName = namesById.remove(id);
+            if (null != oldName) {
+                byName.remove(oldName);
+                missing.put(oldName, true);
+            }
+        }
+    }
+
+    public TokenEpochs(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Get a user's current token epoch.
+     *
+     * @param username User's name
+     * @return Current epoch, null if the user does not exist
+     */
+    @Nullable
+    public Long getEpoch(@NonNull String username) {
+        Epochs current = getEpochs();
+        Long epoch = current.byName().get(username);
+        if (null != epoch) {
+            return epoch;
+        } else if (null != current.missing().getIfPresent(username)) {
+            return null;
+        }
+
+        // A user created moments ago on another node is missing until its notification arrives
+        long changesBefore;
+        synchronized (this) {
+            changesBefore = changes;
+        }
+        UserEpoch user = queryOne(SELECT_BY_NAME_SQL, username);
+        synchronized (this) {
+            // A change applied meanwhile may already be newer than what was just read, it wins
+            if (changesBefore == changes) {
+                if (null == user) {
+                    epochs.missing().put(username, true);
+                } else {
+                    epochs.put(user);
+                }
+            }
+        }
+        return null == user ? null : user.epoch();
+    }
+
+    /**
+     * Check if a token was issued in the user's current epoch.
+     *
+     * @param token Verified token
+     * @return false if the user has changed since the token was issued, no longer exists, or the token
+     * carries no epoch
+     */
+    public boolean isCurrent(@NonNull VerifiedToken token) {
+        if (null == token.tokenEpoch()) {
+            // Nothing to compare against, so there would be no way to ever revoke it
+            return false;
+        }
+
+        Long epoch = getEpoch(token.username());
+        return null != epoch && token.tokenEpoch() >= epoch;
+    }
+
+    @EventListener
+    public synchronized void onUserInvalidated(UserInvalidatedEvent event) {
+        // Checked under the monitor, so a change never slips past a first load that is still running
+        if (null == epochs) {
+            // Nothing loaded yet, the first use will read everything anyway
+            return;
+        }
+
+        if (event.isAll()) {
+            reloadAll();
+            return;
+        }
+
+        List<Long> userIds = List.copyOf(event.userIds());
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        String placeholders = String.join(",", Collections.nCopies(userIds.size(), "?"));
+        List<UserEpoch> users = jdbcTemplate.query(SELECT_BY_IDS_SQL.formatted(placeholders), USER_EPOCH_MAPPER,
+            userIds.toArray());
+        Set<Long> deletedIds = new HashSet<>(userIds);
+        for (UserEpoch user : users) {
+            epochs.put(user);
+            deletedIds.remove(user.id());
+        }
+        deletedIds.forEach(epochs::remove);
+        changes++;
+    }
+
+    @NonNull
+    private Epochs getEpochs() {
+        Epochs current = epochs;
+        if (null == current) {
+            synchronized (this) {
+                current = epochs;
+                if (null == current) {
+                    current = reloadAll();
+                }
+            }
+        }
+
+        return current;
+    }
+
+    private synchronized Epochs reloadAll() {
+        Epochs loaded = new Epochs();
+        jdbcTemplate.query(SELECT_ALL_SQL, rs -> {
+            loaded.put(USER_EPOCH_MAPPER.mapRow(rs, 0));
+        });
+        epochs = loaded;
+        changes++;
+        log.info("Loaded token epochs for " + loaded.byName().size() + " users");
+        return loaded;
+    }
+
+    @Nullable
+    private UserEpoch queryOne(String sql, Object parameter) {
+        List<UserEpoch> users = jdbcTemplate.query(sql, USER_EPOCH_MAPPER, parameter);
+        return users.isEmpty() ? null : users.get(0);
+    }
+}
@@ -0,0 +1,66 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import com.damienwesterman.defensedrill.security.client.VerifiedToken;
+
+/**
+ * Service interface for issuing and checking the tokens handed to users on login. Selected with
+ * {@code defensedrill.token.mode}: self contained JWTs ({@link JwtService}, the default) or opaque
+ * reference tokens ({@link ReferenceTokenService}).
+ */
+public interface TokenIssuer {
+    /**
+     * Issue a token for a user, granting the authorities and carrying the token epoch of the given
+     * UserDetails.
+     *
+     * @param userDetails UserDetails object
+     * @return String token
+     */
+    @NonNull
+    public String issueToken(DrillUserDetails userDetails);
+
+    /**
+     * Check a token. May return null on error.
+     *
+     * @param token String token
+     * @return Contents of the token, null if it is not valid
+     */
+    @Nullable
+    public VerifiedToken verify(String token);
+
+    /**
+     * Revoke a token so it is no longer accepted. Self contained tokens cannot be revoked and stay valid
+     * until they expire.
+     *
+     * @param token String token, may be invalid
+     */
+    public default void revoke(String token) { }
+}
@@ -0,0 +1,291 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.damienwesterman.defensedrill.security.config.ReadReplicaConfig.ReadYourWritesDataSource;
+import com.damienwesterman.defensedrill.security.entity.UserEntity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the user caches of every node coherent using PostgreSQL LISTEN/NOTIFY, no message broker needed.
+ * <br><br>
+ * Each {@link UserChangedEvent} sends one {@code NOTIFY} from inside the changing transaction, so other
+ * nodes only hear about changes that actually commit, and a rolled back change is never announced. The
+ * payload is {@code <node>:<id>[,<id>...]:<directory version>}, with {@code *} instead of the IDs when a bulk
+ * change touched more users than fit in a notification, which invalidates every cached user. Without the
+ * version the {@link UserDirectoryVersion} is re-read.
+ * Every node keeps one dedicated connection (outside the pool) that {@code LISTEN}s on the channel and
+ * evicts the user from the Hibernate second level cache as soon as a notification arrives.
+ * <br><br>
+ * With a read replica configured, a remote change also pins this node's reads to the primary for the
+ * read-your-writes window before anything is evicted, so the caches are not refilled from a replica that
+ * has not caught up with the change yet.
+ * <br><br>
+ * Local and remote changes both end in a {@link UserInvalidatedEvent}, which is what other caches on this
+ * node should listen to. If the listening connection drops, notifications sent meanwhile are lost, so after
+ * reconnecting every cached user is invalidated.
+ * <br><br>
+ * Disable with {@code defensedrill.cache.invalidation.enabled=false} for single node deployments.
+ */
+@Service
+@Slf4j
+public class UserCacheCoherence {
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, ?)";
+    /** Keeps the payload well under PostgreSQL's 8000 byte limit. */
+    private static final int MAX_NOTIFIED_IDS = 100;
+    private static final String ALL_USERS = "*";
+    private static final Duration MIN_RECONNECT_INTERVAL = Duration.ofSeconds(1);
+    private static final Duration MAX_RECONNECT_INTERVAL = Duration.ofSeconds(30);
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    /**
+     * LISTEN takes an identifier, not a bind parameter. Only names PostgreSQL leaves as they are are
+     * accepted, so the node listens on exactly the channel pg_notify sends to.
+     */
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<ReadYourWritesDataSource> readYourWritesDataSource;
+    private final boolean enabled;
+    private final String channel;
+    /** Identifies this node's own notifications, which it has already acted on locally. */
+    private final String nodeId = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final Counter remoteInvalidations;
+    private final Counter resyncs;
+
+    private volatile Thread listenerThread = null;
+
+    public UserCacheCoherence(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties,
+            EntityManagerFactory entityManagerFactory, ApplicationEventPublisher eventPublisher,
+            ObjectProvider<ReadYourWritesDataSource> readYourWritesDataSource, MeterRegistry meterRegistry,
+            @Value("${defensedrill.cache.invalidation.enabled:true}") boolean enabled,
+            @Value("${defensedrill.cache.invalidation.channel:defensedrill_user_changes}") String channel) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+        this.readYourWritesDataSource = readYourWritesDataSource;
+        if (!CHANNEL_PATTERN.matcher(channel).matches()) {
+            throw new IllegalArgumentException("defensedrill.cache.invalidation.channel must match "
+                + CHANNEL_PATTERN.pattern() + ": " + channel);
+        }
+        this.enabled = enabled;
+        this.channel = channel;
+        this.remoteInvalidations = Counter.builder("security.cache.invalidations.remote")
+            .description("User invalidations received from other nodes")
+            .register(meterRegistry);
+        this.resyncs = Counter.builder("security.cache.invalidations.resync")
+            .description("Full user cache invalidations after the notification connection was lost")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        Thread thread = new Thread(this::listen, "user-cache-coherence");
+        thread.setDaemon(true);
+        listenerThread = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = listenerThread;
+        listenerThread = null;
+        if (null != thread) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Announce the change to the other nodes. Runs in the changing transaction, PostgreSQL holds the
+     * notification back until (and unless) it commits.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        String userIds = MAX_NOTIFIED_IDS < event.userIds().size()
+            ? ALL_USERS
+            : event.userIds().stream().map(String::valueOf).collect(Collectors.joining(","));
+        jdbcTemplate.queryForObject(NOTIFY_SQL, Object.class, channel,
+            nodeId + ":" + userIds + ":" + event.directoryVersion());
+    }
+
+    /**
+     * Hibernate already keeps this node's second level cache up to date, only the other local caches
+     * need to hear about it.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserCommitted(UserChangedEvent event) {
+        eventPublisher.publishEvent(new UserInvalidatedEvent(event.userIds(), event.directoryVersion()));
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        int failures = 0;
+        while (Thread.currentThread() == listenerThread) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for user changes on channel " + channel);
+                failures = 0;
+
+                if (reconnecting) {
+                    // Anything could have changed while we were not listening
+                    resyncs.increment();
+                    invalidate(null, null);
+                }
+                reconnecting = true;
+
+                while (Thread.currentThread() == listenerThread) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (null != notifications) {
+                        for (PGNotification notification : notifications) {
+                            onNotification(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                failures++;
+                Duration retryInterval = retryIntervalFor(failures);
+                log.warn("User change notification connection failed (attempt " + failures + "), retrying in "
+                    + retryInterval + ": " + e.getMessage());
+                try {
+                    Thread.sleep(retryInterval.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void onNotification(String payload) {
+        int separator = payload.indexOf(':');
+        if (-1 == separator || payload.startsWith(nodeId + ":")) {
+            return;
+        }
+
+        String change = payload.substring(separator + 1);
+        int versionSeparator = change.indexOf(':');
+        try {
+            remoteInvalidations.increment();
+            if (-1 == versionSeparator) {
+                invalidate(parseUserIds(change), null);
+            } else {
+                invalidate(parseUserIds(change.substring(0, versionSeparator)),
+                    Long.valueOf(change.substring(versionSeparator + 1)));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed user change notification: " + payload);
+        } catch (RuntimeException e) {
+            // Never let a failing cache kill the listener
+            log.error("Failed to invalidate user caches for notification " + payload, e);
+        }
+    }
+
+    /**
+     * @param userIds IDs of the changed users, null to invalidate every user
+     * @param directoryVersion Directory version after the change, null if unknown
+     */
+    private void invalidate(Set<Long> userIds, Long directoryVersion) {
+        // The change committed on the primary, the replica may not have it yet
+        readYourWritesDataSource.ifAvailable(ReadYourWritesDataSource::pinToPrimary);
+
+        if (null == userIds) {
+            entityManagerFactory.getCache().evict(UserEntity.class);
+        } else {
+            userIds.forEach(userId -> entityManagerFactory.getCache().evict(UserEntity.class, userId));
+        }
+        // Name -> ID resolutions are keyed by the (possibly old) name, which the notification does not carry
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictNaturalIdData(UserEntity.class);
+
+        eventPublisher.publishEvent(new UserInvalidatedEvent(userIds, directoryVersion));
+    }
+
+    /**
+     * @return IDs listed in a notification, null if it stands for every user
+     * @throws NumberFormatException If the list is malformed
+     */
+    private static Set<Long> parseUserIds(String userIds) {
+        if (ALL_USERS.equals(userIds)) {
+            return null;
+        }
+
+        Set<Long> parsed = new HashSet<>();
+        for (String userId : userIds.split(",")) {
+            parsed.add(Long.valueOf(userId));
+        }
+        return parsed;
+    }
+
+    private static Duration retryIntervalFor(int failures) {
+        Duration backoff = MIN_RECONNECT_INTERVAL.multipliedBy(1L << Math.min(failures - 1, 20));
+        return backoff.compareTo(MAX_RECONNECT_INTERVAL) > 0 ? MAX_RECONNECT_INTERVAL : backoff;
+    }
+}
@@ -0,0 +1,49 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import java.util.Set;
+
+import org.springframework.lang.NonNull;
+
+/**
+ * Published by {@link UserService} within the transaction that created, updated or deleted users, once
+ * per transaction even for bulk changes. Listeners that must only react to committed changes use
+ * {@link org.springframework.transaction.event.TransactionalEventListener}.
+ *
+ * @param userIds IDs of the changed users
+ * @param directoryVersion {@link UserDirectoryVersion} the transaction moved the directory to
+ */
+public record UserChangedEvent(@NonNull Set<Long> userIds, long directoryVersion) {
+    public UserChangedEvent {
+        userIds = Set.copyOf(userIds);
+    }
+
+    public UserChangedEvent(@NonNull Long userId, long directoryVersion) {
+        this(Set.of(userId), directoryVersion);
+    }
+}
@@ -0,0 +1,129 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Version of the user directory, shared by every node through the user_directory_version row. Used as the
+ * ETag of the user listings, so a client polling an unchanged directory is answered with a 304 without
+ * touching the database, whichever node it reaches.
+ * <br><br>
+ * Every transaction changing users bumps the row (see {@link #next()}). The row lock makes versions follow
+ * commit order, and the new version travels with the change to this node's caches and, via
+ * {@link UserCacheCoherence}, to every other node. A node only moves to a version once its caches have
+ * dropped the changes up to it, so a node lagging behind hands out an older ETag, never a 304 for a
+ * directory it has not seen yet. When notifications may have been missed the version is re-read.
+ * <br><br>
+ * Callers must read the version before querying: a change committing in between then only costs the client
+ * one extra full response, never a stale one under a new ETag.
+ */
+@Service
+public class UserDirectoryVersion {
+    private static final String SELECT_SQL = "SELECT version FROM user_directory_version WHERE id = 1";
+    private static final String BUMP_SQL =
+        "UPDATE user_directory_version SET version = version + 1 WHERE id = 1 RETURNING version";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Null until first read from the database. */
+    private Long version = null;
+    private volatile String eTag = null;
+
+    public UserDirectoryVersion(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Current directory version as a strong ETag.
+     *
+     * @return Quoted ETag value
+     */
+    @NonNull
+    public String getETag() {
+        String current = eTag;
+        if (null == current) {
+            synchronized (this) {
+                current = eTag;
+                if (null == current) {
+                    current = reload();
+                }
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * Bump the shared version. Must run in the transaction changing the users, which then holds the row
+     * until it commits.
+     *
+     * @return New version, to be published with the change
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long next() {
+        return jdbcTemplate.queryForObject(BUMP_SQL, Long.class);
+    }
+
+    @EventListener
+    public void onUserInvalidated(UserInvalidatedEvent event) {
+        if (null == event.directoryVersion()) {
+            // Changes may have been missed, only the database knows where the directory is now
+            reload();
+        } else {
+            advanceTo(event.directoryVersion());
+        }
+    }
+
+    private synchronized void advanceTo(long newVersion) {
+        if (null == version) {
+            // Nothing handed out yet, the first use reads the current version anyway
+            return;
+        }
+
+        // Notifications may arrive out of order, never move back
+        if (newVersion > version) {
+            version = newVersion;
+            eTag = toETag(newVersion);
+        }
+    }
+
+    private synchronized String reload() {
+        version = jdbcTemplate.queryForObject(SELECT_SQL, Long.class);
+        eTag = toETag(version);
+        return eTag;
+    }
+
+    private static String toETag(long version) {
+        return "\"" + version + "\"";
+    }
+}
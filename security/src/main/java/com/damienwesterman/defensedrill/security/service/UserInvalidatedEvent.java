@@ -0,0 +1,54 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import java.util.Set;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Published by {@link UserCacheCoherence} whenever locally cached data about a user must be dropped:
+ * after a user change committed on this node, and when another node reports one. Unlike
+ * {@link UserChangedEvent} it is never published inside a transaction, so plain
+ * {@link org.springframework.context.event.EventListener}s are enough.
+ *
+ * @param userIds IDs of the changed users, null if any user may have changed (e.g. notifications were
+ * missed while the database connection was down, or too many users changed at once to list them)
+ * @param directoryVersion {@link UserDirectoryVersion} the change moved the directory to, null if unknown
+ */
+public record UserInvalidatedEvent(@Nullable Set<Long> userIds, @Nullable Long directoryVersion) {
+    public UserInvalidatedEvent {
+        userIds = null == userIds ? null : Set.copyOf(userIds);
+    }
+
+    /**
+     * @return true if every cached user must be dropped
+     */
+    public boolean isAll() {
+        return null == userIds;
+    }
+}
@@ -0,0 +1,312 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.damienwesterman.defensedrill.security.client.UserRoles;
+import com.damienwesterman.defensedrill.security.entity.UserEntity;
+import com.damienwesterman.defensedrill.security.exception.DatabaseInsertException;
+import com.damienwesterman.defensedrill.security.repository.UserInfo;
+import com.damienwesterman.defensedrill.security.repository.UserRepository;
+import com.damienwesterman.defensedrill.security.util.Roles;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Service class for database CRUD operations for users.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserService {
+    private final UserRepository repo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserDirectoryVersion directoryVersion;
+
+    /**
+     * Create a new user.
+     *
+     * @param user User to save to the database.
+     * @return Newly created User.
+     */
+    @NonNull
+    @Transactional
+    public UserEntity create(@NonNull UserEntity user) {
+        user.setId(null);
+        user.setVersion(null);
+
+        if (!isValidRoles(user.getRoles())) {
+            throw new DatabaseInsertException("Roles are not valid");
+        }
+
+        UserEntity createdUser = ErrorMessageUtils.trySave(user, repo);
+        publishChange(Set.of(createdUser.getId()));
+        return createdUser;
+    }
+
+    /**
+     * Find a user by their ID.
+     *
+     * @param id User ID.
+     * @return Optional containing the user, if one exists.
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserEntity> find(@NonNull Long id) {
+        return repo.findById(id);
+    }
+
+    /**
+     * Find a user by their name.
+     *
+     * @param name User's name.
+     * @return Optional containing the user, if one exists.
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserEntity> find(@NonNull String name) {
+        return repo.findByName(name);
+    }
+
+    /**
+     * Find all users in the database. Returned in alphabetical order by first name.
+     *
+     * @return
+     */
+    @NonNull
+    @Transactional(readOnly = true)
+    public List<UserEntity> findAll() {
+        return repo.findAll(Sort.by(Sort.Direction.ASC, "name"));
+    }
+
+    /**
+     * Find all users explicitly granted the given role. Returned in alphabetical order by name.
+     *
+     * @param role {@link UserRoles} role.
+     * @return List of UserEntity objects.
+     */
+    @NonNull
+    @Transactional(readOnly = true)
+    public List<UserEntity> findAllByRole(@NonNull UserRoles role) {
+        return repo.findAllByRole(role.getStringRepresentation());
+    }
+
+    /**
+     * Find the public info of a user by their ID, without loading their password.
+     *
+     * @param id User ID.
+     * @return Optional containing the user info, if one exists.
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserInfo> findInfo(@NonNull Long id) {
+        return repo.findUserInfoById(id);
+    }
+
+    /**
+     * Find the public info of all users, without loading their passwords. Returned in alphabetical
+     * order by name.
+     *
+     * @return List of UserInfo objects.
+     */
+    @NonNull
+    @Transactional(readOnly = true)
+    public List<UserInfo> findAllInfo() {
+        return repo.findAllUserInfo();
+    }
+
+    /**
+     * Find the public info of all users explicitly granted the given role, without loading their
+     * passwords. Returned in alphabetical order by name.
+     *
+     * @param role {@link UserRoles} role.
+     * @return List of UserInfo objects.
+     */
+    @NonNull
+    @Transactional(readOnly = true)
+    public List<UserInfo> findAllInfoByRole(@NonNull UserRoles role) {
+        return repo.findAllUserInfoByRole(role.getStringRepresentation());
+    }
+
+    /**
+     * Update a User. This is done with a single conditional UPDATE statement, the user is not read first.
+     * If {@link UserEntity#getVersion()} is set, the update only succeeds if the user has not been changed
+     * since that version.
+     *
+     * @param user User to update.
+     * @return Updated User. The version is only filled in if the caller supplied one.
+     * @throws NoSuchElementException If the user does not exist.
+     * @throws ObjectOptimisticLockingFailureException If the user has been changed since the given version.
+     */
+    @NonNull
+    @Transactional
+    public UserEntity update(@NonNull UserEntity user) {
+        if (null == user.getId()) {
+            throw new DatabaseInsertException("ID is null");
+        }
+
+        if (!isValidRoles(user.getRoles())) {
+            throw new DatabaseInsertException("Roles are not valid");
+        }
+
+        // The query itself makes sure we are not removing the last admin
+        int updatedRows = ErrorMessageUtils.tryExecute(() -> repo.conditionalUpdate(
+            user.getId(),
+            user.getVersion(),
+            user.getName(),
+            user.getPassword(),
+            user.getRoles().toString(),
+            user.getRoles().contains(UserRoles.ADMIN),
+            UserRoles.ADMIN.getStringRepresentation()
+        ));
+
+        if (1 == updatedRows) {
+            // The same statement moved the user to a new epoch, their old tokens are no longer accepted
+            publishChange(Set.of(user.getId()));
+            if (null != user.getVersion()) {
+                user.setVersion(user.getVersion() + 1);
+            }
+            return user;
+        }
+
+        // Nothing was updated, only this failure path pays for a second query to find out why
+        UserEntity existingUser = repo.findById(user.getId())
+            .orElseThrow(() -> new NoSuchElementException("User not found"));
+        if (null != user.getVersion() && !user.getVersion().equals(existingUser.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(UserEntity.class, user.getId());
+        }
+
+        // This operation would otherwise remove the last remaining admin, so it was stopped
+        throw new DatabaseInsertException("Cannot remove the last admin");
+    }
+
+    /**
+     * Delete a User by their ID.
+     *
+     * @param id User ID.
+     */
+    @Transactional
+    public void delete(@NonNull Long id) {
+        // Make sure we are not removing the last admin
+        List<UserEntity> admins = findAllByRole(UserRoles.ADMIN);
+        if (1 == admins.size()) {
+            if (admins.get(0).getId().equals(id)) {
+                // This operation would otherwise delete the last remaining admin, so stop it
+                throw new DatabaseInsertException("Cannot remove the last admin");
+            }
+        }
+
+        repo.deleteById(id);
+        publishChange(Set.of(id));
+    }
+
+    /**
+     * Replace the roles of several users at once, in a single statement. All or nothing: if any user does
+     * not exist or the change would remove the last admin, no user is changed.
+     *
+     * @param ids User IDs.
+     * @param roles New roles.
+     * @return Public info of the updated users, in alphabetical order by name.
+     * @throws NoSuchElementException If any of the users does not exist.
+     */
+    @NonNull
+    @Transactional
+    public List<UserInfo> updateRoles(@NonNull Collection<Long> ids, @Nullable Roles roles) {
+        if (!isValidRoles(roles)) {
+            throw new DatabaseInsertException("Roles are not valid");
+        }
+
+        Set<Long> uniqueIds = new HashSet<>(ids);
+        int updatedRows = repo.bulkUpdateRoles(uniqueIds, roles.toString(), roles.contains(UserRoles.ADMIN),
+            UserRoles.ADMIN.getStringRepresentation());
+        checkBulkResult(uniqueIds, updatedRows);
+
+        publishChange(uniqueIds);
+        return repo.findAllUserInfoByIdIn(uniqueIds);
+    }
+
+    /**
+     * Delete several users at once, in a single statement. All or nothing: if any user does not exist or
+     * the deletion would remove the last admin, no user is deleted.
+     *
+     * @param ids User IDs.
+     * @throws NoSuchElementException If any of the users does not exist.
+     */
+    @Transactional
+    public void delete(@NonNull Collection<Long> ids) {
+        Set<Long> uniqueIds = new HashSet<>(ids);
+        int deletedRows = repo.bulkDelete(uniqueIds, UserRoles.ADMIN.getStringRepresentation());
+        checkBulkResult(uniqueIds, deletedRows);
+
+        publishChange(uniqueIds);
+    }
+
+    /**
+     * Bump the directory version in the changing transaction and tell the listeners about the change.
+     */
+    private void publishChange(Set<Long> ids) {
+        eventPublisher.publishEvent(new UserChangedEvent(ids, directoryVersion.next()));
+    }
+
+    /**
+     * Make sure a bulk statement changed every listed user, otherwise find out why and fail, which rolls
+     * back the transaction.
+     */
+    private void checkBulkResult(Set<Long> ids, int changedRows) {
+        if (ids.size() == changedRows) {
+            return;
+        }
+
+        // Only this failure path pays for a second query to find out why
+        if (repo.countByIdIn(ids) < ids.size()) {
+            throw new NoSuchElementException("User not found");
+        }
+
+        // Everyone exists, so the statement was stopped by the admin check
+        throw new DatabaseInsertException("Cannot remove the last admin");
+    }
+
+    /**
+     * Check to make sure a user has been granted at least one role.
+     *
+     * @param roles User's roles.
+     * @return true/false if the roles are valid.
+     */
+    private boolean isValidRoles(@Nullable Roles roles) {
+        return null != roles && !roles.isEmpty();
+    }
+}
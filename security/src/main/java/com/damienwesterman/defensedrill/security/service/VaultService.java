@@ -26,10 +26,13 @@
 
 package com.damienwesterman.defensedrill.security.service;
 
+import java.time.Duration;
+
 import org.springframework.lang.NonNull;
 
 /**
- * Service interface to retrieve public/private jwt keys.
+ * Service interface to retrieve public/private jwt keys. Callers should go through {@link JwtKeyService},
+ * which caches the keys and keeps them refreshed.
  */
 public interface VaultService {
     final static String VAULT_ENDPOINT_JWT_PRIVATE_KEY = "secret/security";
@@ -37,13 +40,21 @@ public interface VaultService {
     final static String VAULT_KEY_JWT_PRIVATE_KEY = "jwtPrivateKey";
     final static String VAULT_KEY_JWT_PUBLIC_KEY = "jwtPublicKey";
 
+    /**
+     * A secret value along with how long it may be used before it should be read again.
+     *
+     * @param value Secret value
+     * @param leaseDuration Lease duration, {@link Duration#ZERO} if the secret has no lease
+     */
+    public record Secret(@NonNull String value, @NonNull Duration leaseDuration) { }
+
     /**
      * Retrieve the JWT public key.
      *
      * @return JWT public key
      */
     @NonNull
-	public String getJwtPublicKey();
+	public Secret getJwtPublicKey();
 
     /**
      * Retrieve the JWT private key.
@@ -51,5 +62,5 @@ public interface VaultService {
      * @return JWT private key
      */
     @NonNull
-    public String getJwtPrivateKey();
+    public Secret getJwtPrivateKey();
 }
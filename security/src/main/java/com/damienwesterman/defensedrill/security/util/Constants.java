@@ -27,23 +27,17 @@
 package com.damienwesterman.defensedrill.security.util;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
-import com.damienwesterman.defensedrill.security.service.VaultService;
-
 @Component
 public class Constants {
     /**
      * Constructor for spring to fill constants at startup.
      */
-    private Constants(Environment environment, VaultService vaultService) {
+    private Constants(Environment environment) {
         ACTIVE_SPRING_PROFILES = List.of(environment.getActiveProfiles());
-
-        PUBLIC_KEY = vaultService.getJwtPublicKey();
-        PRIVATE_KEY = vaultService.getJwtPrivateKey();
     }
 
     private static List<String> ACTIVE_SPRING_PROFILES = null;
@@ -61,28 +55,4 @@ public class Constants {
 
         return ACTIVE_SPRING_PROFILES.contains(PROD_PROFILE_STRING);
     }
-
-    public static enum UserRoles {
-        USER("USER"),
-        ADMIN("ADMIN");
-
-        private String roleString;
-
-        UserRoles(String roleString) {
-            this.roleString = roleString;
-        }
-
-        public String getStringRepresentation() {
-            return this.roleString;
-        }
-    }
-
-    public static final List<String> ALL_ROLES_LIST = List.of(UserRoles.values()).stream()
-        .map(UserRoles::getStringRepresentation)
-        .collect(Collectors.toList());
-
-    public static String PUBLIC_KEY = null;
-    public static String PRIVATE_KEY = null;
-
-    public static final String JWT_ISSUER = "DefenseDrillWeb";
 }
@@ -0,0 +1,127 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+import org.springframework.lang.NonNull;
+
+/**
+ * Bounded, lock-free, multiple producer single consumer ring buffer.
+ * <br><br>
+ * Producers never block: {@link #offer(Object)} either claims a slot with a single CAS or fails
+ * immediately when the buffer is full. Draining is meant for one background thread at a time and is
+ * synchronized so that concurrent drain calls are still safe.
+ *
+ * @param <E> Element type.
+ */
+public class MpscRingBuffer<E> {
+    private final AtomicReferenceArray<E> buffer;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    /** Only ever written by the (single) consumer. */
+    private volatile long consumerIndex = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param requestedCapacity Minimum capacity, rounded up to the next power of two.
+     */
+    public MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 1 || requestedCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        }
+
+        int powerOfTwo = 1;
+        while (powerOfTwo < requestedCapacity) {
+            powerOfTwo <<= 1;
+        }
+        this.capacity = powerOfTwo;
+        this.mask = this.capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    /**
+     * Add an element, without blocking.
+     *
+     * @param element Element to add.
+     * @return true if added, false if the buffer was full.
+     */
+    public boolean offer(@NonNull E element) {
+        long index;
+        do {
+            index = producerIndex.get();
+            if (index - consumerIndex >= capacity) {
+                return false;
+            }
+        } while (!producerIndex.compareAndSet(index, index + 1));
+
+        buffer.lazySet((int) (index & mask), element);
+        return true;
+    }
+
+    /**
+     * Remove all currently published elements and pass them to the consumer, oldest first.
+     *
+     * @param consumer Consumer for each drained element.
+     * @return Number of elements drained.
+     */
+    public synchronized int drain(@NonNull Consumer<E> consumer) {
+        long index = consumerIndex;
+        int drained = 0;
+
+        while (true) {
+            int offset = (int) (index & mask);
+            E element = buffer.get(offset);
+            if (null == element) {
+                // Empty, or a producer has claimed the slot but not published into it yet
+                break;
+            }
+
+            buffer.lazySet(offset, null);
+            consumerIndex = ++index;
+            consumer.accept(element);
+            drained++;
+        }
+
+        return drained;
+    }
+
+    /**
+     * @return Approximate number of elements waiting to be drained.
+     */
+    public int size() {
+        return (int) Math.max(0, producerIndex.get() - consumerIndex);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
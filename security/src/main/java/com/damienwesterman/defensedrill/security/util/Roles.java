@@ -0,0 +1,336 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.damienwesterman.defensedrill.security.client.TokenClaims;
+import com.damienwesterman.defensedrill.security.client.UserRoles;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Immutable set of {@link UserRoles}, backed by a bitmask.
+ * <br><br>
+ * There is exactly one instance per combination of roles, all created up front, so building, parsing
+ * and checking roles never allocates and every check is a single bit test. Roles are stored in the
+ * database as a comma separated string (see {@code RolesConverter}) and serialized to JSON as a list of
+ * role names.
+ * <br><br>
+ * {@link #contains(UserRoles)} only looks at the roles that were explicitly granted, while
+ * {@link #grants(UserRoles)} also follows the role hierarchy (see {@link UserRoles#getImpliedRoles()}).
+ */
+public final class Roles {
+    public static final String DELIMITER = TokenClaims.ROLE_DELIMITER;
+    public static final String AUTHORITY_PREFIX = TokenClaims.ROLE_PREFIX;
+
+    private static final UserRoles[] ALL_ROLES = UserRoles.values();
+    private static final Roles[] INSTANCES = new Roles[1 << ALL_ROLES.length];
+    private static final int INVALID = -1;
+
+    static {
+        for (int mask = 0; mask < INSTANCES.length; mask++) {
+            INSTANCES[mask] = new Roles(mask);
+        }
+    }
+
+    public static final Roles NONE = INSTANCES[0];
+
+    /** Explicitly granted roles. */
+    private final int mask;
+    /** Explicitly granted roles plus everything they imply. */
+    private final int effectiveMask;
+    private final String stringRepresentation;
+    private final String authorityString;
+    private final List<String> names;
+    private final List<GrantedAuthority> authorities;
+
+    private Roles(int mask) {
+        this.mask = mask;
+
+        int effective = mask;
+        List<String> roleNames = new ArrayList<>();
+        for (UserRoles role : ALL_ROLES) {
+            if (0 != (mask & bit(role))) {
+                roleNames.add(role.getStringRepresentation());
+                for (UserRoles impliedRole : role.getImpliedRoles()) {
+                    effective |= bit(impliedRole);
+                }
+            }
+        }
+        this.effectiveMask = effective;
+        this.names = Collections.unmodifiableList(roleNames);
+        this.stringRepresentation = String.join(DELIMITER, roleNames);
+
+        List<GrantedAuthority> grantedAuthorities = new ArrayList<>();
+        StringJoiner authorityJoiner = new StringJoiner(DELIMITER);
+        for (UserRoles role : ALL_ROLES) {
+            if (0 != (effective & bit(role))) {
+                String authority = AUTHORITY_PREFIX + role.getStringRepresentation();
+                grantedAuthorities.add(new SimpleGrantedAuthority(authority));
+                authorityJoiner.add(authority);
+            }
+        }
+        this.authorities = Collections.unmodifiableList(grantedAuthorities);
+        this.authorityString = authorityJoiner.toString();
+    }
+
+    /**
+     * Get the Roles containing exactly the given roles.
+     *
+     * @param roles Roles to include
+     * @return Roles
+     */
+    @NonNull
+    public static Roles of(UserRoles... roles) {
+        int mask = 0;
+        for (UserRoles role : roles) {
+            mask |= bit(role);
+        }
+
+        return INSTANCES[mask];
+    }
+
+    /**
+     * Parse a comma separated list of roles, as stored in the database. Each role may optionally carry
+     * the {@value #AUTHORITY_PREFIX} prefix, as used in granted authorities and JWT claims.
+     *
+     * @param roles Comma separated list of roles
+     * @return Parsed Roles
+     * @throws IllegalArgumentException If any of the roles are unknown
+     */
+    @NonNull
+    public static Roles parse(@NonNull CharSequence roles) throws IllegalArgumentException {
+        Roles parsed = parseOrNull(roles);
+
+        if (null == parsed) {
+            throw new IllegalArgumentException("Invalid roles: " + roles);
+        }
+
+        return parsed;
+    }
+
+    /**
+     * Same as {@link #parse(CharSequence)}, but returns null instead of throwing for unknown roles.
+     *
+     * @param roles Comma separated list of roles
+     * @return Parsed Roles, null if any of the roles are unknown
+     */
+    @Nullable
+    public static Roles parseOrNull(@Nullable CharSequence roles) {
+        if (null == roles) {
+            return null;
+        }
+
+        int mask = 0;
+        int start = 0;
+        int length = roles.length();
+        while (start < length) {
+            int end = start;
+            while (end < length && DELIMITER.charAt(0) != roles.charAt(end)) {
+                end++;
+            }
+
+            int roleMask = maskOf(roles, start, end);
+            if (INVALID == roleMask) {
+                return null;
+            }
+            mask |= roleMask;
+            start = end + 1;
+        }
+
+        return INSTANCES[mask];
+    }
+
+    /**
+     * Build Roles from a collection of role names, as received in JSON.
+     *
+     * @param roleNames Role names
+     * @return Roles
+     * @throws IllegalArgumentException If any of the roles are unknown
+     */
+    @NonNull
+    @JsonCreator
+    public static Roles fromNames(@NonNull Collection<String> roleNames) throws IllegalArgumentException {
+        int mask = 0;
+        for (String roleName : roleNames) {
+            int roleMask = null == roleName ? INVALID : maskOf(roleName, 0, roleName.length());
+            if (INVALID == roleMask) {
+                throw new IllegalArgumentException("Invalid role: " + roleName);
+            }
+            mask |= roleMask;
+        }
+
+        return INSTANCES[mask];
+    }
+
+    /**
+     * Build Roles from Spring Security granted authorities. Authorities that are not roles are ignored.
+     *
+     * @param authorities Granted authorities
+     * @return Roles
+     */
+    @NonNull
+    public static Roles fromAuthorities(@NonNull Collection<? extends GrantedAuthority> authorities) {
+        int mask = 0;
+        for (GrantedAuthority authority : authorities) {
+            String authorityString = authority.getAuthority();
+            if (null != authorityString) {
+                int roleMask = maskOf(authorityString, 0, authorityString.length());
+                if (INVALID != roleMask) {
+                    mask |= roleMask;
+                }
+            }
+        }
+
+        return INSTANCES[mask];
+    }
+
+    /**
+     * Check if the role was explicitly granted, ignoring the role hierarchy.
+     *
+     * @param role Role to check
+     * @return true/false if the role was explicitly granted
+     */
+    public boolean contains(@NonNull UserRoles role) {
+        return 0 != (mask & bit(role));
+    }
+
+    /**
+     * Check if the role is granted, either explicitly or implied by another role.
+     *
+     * @param role Role to check
+     * @return true/false if the role is granted
+     */
+    public boolean grants(@NonNull UserRoles role) {
+        return 0 != (effectiveMask & bit(role));
+    }
+
+    /**
+     * Narrow these roles down to a single one, if it is granted.
+     *
+     * @param role Role to keep
+     * @return Roles containing only the given role, or {@link #NONE} if it is not granted
+     */
+    @NonNull
+    public Roles restrictTo(@Nullable UserRoles role) {
+        if (null == role || !grants(role)) {
+            return NONE;
+        }
+
+        return INSTANCES[bit(role)];
+    }
+
+    public boolean isEmpty() {
+        return 0 == mask;
+    }
+
+    /**
+     * @return Explicitly granted role names
+     */
+    @NonNull
+    @JsonValue
+    public List<String> toList() {
+        return names;
+    }
+
+    /**
+     * @return Granted authorities, including roles implied by the role hierarchy
+     */
+    @NonNull
+    public List<GrantedAuthority> toAuthorities() {
+        return authorities;
+    }
+
+    /**
+     * @return Granted authorities concatenated into a single string using ","
+     */
+    @NonNull
+    public String toAuthorityString() {
+        return authorityString;
+    }
+
+    /**
+     * @return Explicitly granted roles concatenated into a single string using ","
+     */
+    @Override
+    public String toString() {
+        return stringRepresentation;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Roles && ((Roles) other).mask == mask;
+    }
+
+    @Override
+    public int hashCode() {
+        return mask;
+    }
+
+    private static int bit(UserRoles role) {
+        return 1 << role.ordinal();
+    }
+
+    /**
+     * Find the mask of the single role between start and end, with or without the authority prefix.
+     */
+    private static int maskOf(CharSequence roles, int start, int end) {
+        if (end - start > AUTHORITY_PREFIX.length()
+                && regionMatches(roles, start, AUTHORITY_PREFIX)) {
+            start += AUTHORITY_PREFIX.length();
+        }
+
+        for (UserRoles role : ALL_ROLES) {
+            String roleString = role.getStringRepresentation();
+            if (end - start == roleString.length() && regionMatches(roles, start, roleString)) {
+                return bit(role);
+            }
+        }
+
+        return INVALID;
+    }
+
+    private static boolean regionMatches(CharSequence sequence, int offset, String expected) {
+        for (int i = 0; i < expected.length(); i++) {
+            if (sequence.charAt(offset + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,100 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.lang.NonNull;
+
+/**
+ * Coalesces concurrent calls for the same key: while one call (the leader) is computing a value, every
+ * other call for that key waits for it and gets the same result instead of computing it again. Nothing is
+ * cached, the key is forgotten as soon as the leader finishes, so a call arriving afterwards computes a
+ * fresh value.
+ * <br><br>
+ * Exceptions thrown by the leader are rethrown to every waiting caller. Shared values must therefore be
+ * immutable, or at least never modified by the callers.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder sharedCalls = new LongAdder();
+
+    /**
+     * Compute the value for a key, or join the computation already running for it.
+     *
+     * @param key Key identifying identical calls.
+     * @param computation Computes the value, only run by the leader.
+     * @return Computed value, may be null.
+     */
+    public V execute(@NonNull K key, @NonNull Supplier<V> computation) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, future);
+        if (null != leader) {
+            sharedCalls.increment();
+            return await(leader);
+        }
+
+        try {
+            V value = computation.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * @return Number of calls that were answered with another call's result.
+     */
+    public long getSharedCalls() {
+        return sharedCalls.sum();
+    }
+
+    private static <V> V await(CompletableFuture<V> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
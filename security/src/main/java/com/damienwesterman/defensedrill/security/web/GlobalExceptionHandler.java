@@ -37,8 +37,6 @@ import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -46,11 +44,11 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import com.damienwesterman.defensedrill.security.bulkhead.Bulkhead;
+import com.damienwesterman.defensedrill.security.exception.BulkheadFullException;
 import com.damienwesterman.defensedrill.security.exception.DatabaseInsertException;
 import com.damienwesterman.defensedrill.security.web.dto.ErrorMessageDTO;
 
-import jakarta.servlet.http.HttpServletResponse;
-
 /**
  * Error handling controller for all exceptions.
  */
@@ -155,15 +153,19 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             );
     }
 
-    @ExceptionHandler({UsernameNotFoundException.class, BadCredentialsException.class})
-    public void handleUsernameNotFoundException(HttpServletResponse response) {
-        // Redirect to login screen with error message
-        response.setStatus(HttpServletResponse.SC_SEE_OTHER);
-        response.setHeader(HttpHeaders.LOCATION, "/login?error=Invalid%20Credentials");
-    }
-
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorMessageDTO> handleGenericException(Exception e) {
+        if (BulkheadFullException.isCauseOf(e)) {
+            // Ex. a burst of logins used up the bulkhead's database connections, arrives wrapped by Spring
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Bulkhead.RETRY_AFTER_SECONDS)
+                .body(ErrorMessageDTO.builder()
+                    .error("Service Unavailable")
+                    .message("The service is busy, please try again shortly.")
+                    .build()
+                );
+        }
+
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
             .body(ErrorMessageDTO.builder()
                 .error("Unknown Error")
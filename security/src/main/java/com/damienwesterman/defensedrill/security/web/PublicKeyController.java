@@ -0,0 +1,62 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.damienwesterman.defensedrill.security.service.JwtKeyService;
+import com.damienwesterman.defensedrill.security.service.JwtKeyService.JwtKeys;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Publishes the public key JWTs are signed with, so other services can verify tokens locally with the
+ * security-client module instead of calling back here for every request.
+ */
+@RestController
+@RequestMapping(PublicKeyController.ENDPOINT)
+@RequiredArgsConstructor
+public class PublicKeyController {
+    public static final String ENDPOINT = "/public-key";
+
+    private final JwtKeyService jwtKeyService;
+
+    @GetMapping(produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> getPublicKey() {
+        JwtKeys keys = jwtKeyService.getKeys();
+        if (null == keys) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        return ResponseEntity.ok(keys.encodedPublicKey());
+    }
+}
@@ -0,0 +1,128 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.damienwesterman.defensedrill.security.client.UserRoles;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.Outcome;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.Phase;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.PhaseTimer;
+import com.damienwesterman.defensedrill.security.service.AuthenticationResult;
+import com.damienwesterman.defensedrill.security.service.AuthenticationService;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics;
+import com.damienwesterman.defensedrill.security.service.LoginJournalService;
+import com.damienwesterman.defensedrill.security.service.TokenIssuer;
+import com.damienwesterman.defensedrill.security.web.dto.LoginDTO;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping(RestAuthenticationController.ENDPOINT)
+@RequiredArgsConstructor
+public class RestAuthenticationController {
+    public static final String ENDPOINT = "/authenticate";
+    private static final String INVALID_CREDENTIALS = "Invalid Credentials";
+
+    private final TokenIssuer tokenIssuer;
+    private final AuthenticationService authenticationService;
+    private final LoginJournalService loginJournalService;
+    private final AuthenticationMetrics metrics;
+
+    @PostMapping
+    public ResponseEntity<String> authenticate(@RequestBody LoginDTO login) {
+        PhaseTimer timer = metrics.start(Phase.ATTEMPT);
+        Outcome outcome = Outcome.ERROR;
+        try {
+            AuthenticationResult result =
+                authenticationService.authenticate(login.getUsername(), login.getPassword(), null);
+            outcome = result.outcome();
+            if (Outcome.DEADLINE_EXCEEDED == outcome) {
+                return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+            } else if (!result.isSuccess()) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(INVALID_CREDENTIALS);
+            }
+
+            String jwt = tokenIssuer.issueToken(result.userDetails());
+            loginJournalService.recordLogin(login.getUsername());
+
+            return ResponseEntity.ok(jwt);
+        } finally {
+            metrics.stop(timer, outcome);
+        }
+    }
+
+    /**
+     * User wants to authenticate and get a JWT for a specific role.
+     * <br><br>
+     * An example for this might be someone who is a mobile user granted ROLE_USER and ROLE_ADMIN.
+     * The user wants the extended expiration for their JWT using ROLE_USER, so this endpoint allows
+     * them to specify which role they want to authenticate for.
+     *
+     * @param login User Login DTO
+     * @param role Role to authenticate for
+     * @return ResponseEntity containing the String JWT
+     */
+    @PostMapping("/{role}")
+    public ResponseEntity<String> authenticateForRole(@RequestBody LoginDTO login, @PathVariable String role) {
+        PhaseTimer timer = metrics.start(Phase.ATTEMPT);
+        Outcome outcome = Outcome.ERROR;
+        try {
+            UserRoles requestedRole = UserRoles.fromStringRepresentation(role);
+            if (null == requestedRole) {
+                // Nobody can be authorized for a role that doesn't exist
+                outcome = Outcome.FORBIDDEN;
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+
+            AuthenticationResult result =
+                authenticationService.authenticate(login.getUsername(), login.getPassword(), requestedRole);
+            outcome = result.outcome();
+            if (Outcome.DEADLINE_EXCEEDED == outcome) {
+                return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+            } else if (Outcome.FORBIDDEN == outcome) {
+                // They are not authorized for the requested role
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            } else if (!result.isSuccess()) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(INVALID_CREDENTIALS);
+            }
+
+            String jwt = tokenIssuer.issueToken(result.userDetails());
+            loginJournalService.recordLogin(login.getUsername());
+
+            return ResponseEntity.ok(jwt);
+        } finally {
+            metrics.stop(timer, outcome);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.damienwesterman.defensedrill.security.client.VerifiedToken;
+import com.damienwesterman.defensedrill.security.service.TokenIssuer;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping(TokenController.ENDPOINT)
+@RequiredArgsConstructor
+public class TokenController {
+    public static final String ENDPOINT = "/token";
+
+    private final TokenIssuer tokenIssuer;
+
+    /**
+     * Resolve a token issued by this service to the user and roles it grants. The only way to check a
+     * reference token from another service, also accepts JWTs.
+     *
+     * @param token String token
+     * @return ResponseEntity containing the token's contents, 401 if it is not valid
+     */
+    @PostMapping(value = "/introspect", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<VerifiedToken> introspect(@RequestBody String token) {
+        VerifiedToken verifiedToken = tokenIssuer.verify(token.trim());
+        if (null == verifiedToken) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return ResponseEntity.ok(verifiedToken);
+    }
+}
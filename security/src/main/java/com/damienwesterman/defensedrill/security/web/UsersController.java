@@ -29,8 +29,8 @@ package com.damienwesterman.defensedrill.security.web;
 import java.net.URI;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -40,9 +40,16 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.damienwesterman.defensedrill.security.client.UserRoles;
 import com.damienwesterman.defensedrill.security.entity.UserEntity;
+import com.damienwesterman.defensedrill.security.exception.DatabaseInsertException;
+import com.damienwesterman.defensedrill.security.repository.UserInfo;
+import com.damienwesterman.defensedrill.security.service.UserDirectoryVersion;
 import com.damienwesterman.defensedrill.security.service.UserService;
+import com.damienwesterman.defensedrill.security.util.Roles;
+import com.damienwesterman.defensedrill.security.web.dto.BulkUsersDTO;
 import com.damienwesterman.defensedrill.security.web.dto.UserFormDTO;
 import com.damienwesterman.defensedrill.security.web.dto.UserInfoDTO;
 
@@ -55,21 +62,24 @@ import lombok.RequiredArgsConstructor;
 public class UsersController {
     public static final String ENDPOINT = "/user";
     private final UserService service;
+    private final UserDirectoryVersion directoryVersion;
     private final PasswordEncoder passwordEncoder;
 
     @GetMapping
-    public ResponseEntity<List<UserInfoDTO>> getAllUsers() {
-        List<UserEntity> users = service.findAll();
+    public ResponseEntity<List<UserInfoDTO>> getAllUsers(WebRequest request) {
+        // Read the version before the query, see UserDirectoryVersion
+        String eTag = directoryVersion.getETag();
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        List<UserInfoDTO> users = toDtos(service.findAllInfo());
 
         if (users.isEmpty()) {
-            return ResponseEntity.noContent().build();
+            return ResponseEntity.noContent().eTag(eTag).build();
         }
 
-        return ResponseEntity.ok(
-            users.stream()
-                .map(UserInfoDTO::new)
-                .collect(Collectors.toList())
-        );
+        return ResponseEntity.ok().eTag(eTag).body(users);
     }
 
     @PostMapping
@@ -82,47 +92,73 @@ public class UsersController {
     }
 
     @GetMapping("/roles/{role}")
-    public ResponseEntity<List<UserInfoDTO>> getAllUsersByRole(@PathVariable String role) {
-        List<UserEntity> users = service.findAllByRole(role);
+    public ResponseEntity<List<UserInfoDTO>> getAllUsersByRole(@PathVariable String role, WebRequest request) {
+        UserRoles userRole = UserRoles.fromStringRepresentation(role);
+        if (null == userRole) {
+            // Nobody can have a role that does not exist
+            return ResponseEntity.noContent().build();
+        }
+
+        String eTag = directoryVersion.getETag();
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        List<UserInfoDTO> users = toDtos(service.findAllInfoByRole(userRole));
 
         if (users.isEmpty()) {
-            return ResponseEntity.noContent().build();
+            return ResponseEntity.noContent().eTag(eTag).build();
         }
 
-        return ResponseEntity.ok(
-            users.stream()
-                .map(UserInfoDTO::new)
-                .collect(Collectors.toList())
-        );
+        return ResponseEntity.ok().eTag(eTag).body(users);
     }
 
     @GetMapping("/id/{id}")
     public ResponseEntity<UserInfoDTO> getUserById(@PathVariable Long id) {
-        Optional<UserEntity> optUser = service.find(id);
+        Optional<UserInfoDTO> optUser = service.findInfo(id).map(UserInfoDTO::new);
 
         if (optUser.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
-        return ResponseEntity.ok(new UserInfoDTO(optUser.get()));
+        return ResponseEntity.ok(optUser.get());
     }
 
     @PostMapping("/id/{id}")
     public ResponseEntity<UserInfoDTO> updateUserById(@PathVariable Long id,
             @RequestBody @Valid UserFormDTO user) {
-        if (service.find(id).isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
-
+        // A nonexistent ID is reported by the service as a NoSuchElementException, which becomes a 404
         UserEntity updatedUser = service.update(user.toEntity(id, passwordEncoder));
         return ResponseEntity
             .ok(new UserInfoDTO(updatedUser)
         );
     }
 
+    @PostMapping("/bulk/roles")
+    public ResponseEntity<List<UserInfoDTO>> updateUserRoles(@RequestBody @Valid BulkUsersDTO users) {
+        Roles roles;
+        try {
+            roles = Roles.fromNames(null == users.getRoles() ? List.of() : users.getRoles());
+        } catch (IllegalArgumentException e) {
+            throw new DatabaseInsertException("Roles are not valid", e);
+        }
+
+        return ResponseEntity.ok(toDtos(service.updateRoles(users.getIds(), roles)));
+    }
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<Void> deleteUsers(@RequestBody @Valid BulkUsersDTO users) {
+        service.delete(users.getIds());
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/id/{id}")
     public ResponseEntity<Void> deleteUserById(@PathVariable Long id) {
         service.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static List<UserInfoDTO> toDtos(List<UserInfo> users) {
+        return users.stream().map(UserInfoDTO::new).toList();
+    }
 }
@@ -30,20 +30,26 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.server.ResponseStatusException;
 
-import com.damienwesterman.defensedrill.security.service.DrillUserDetailsService;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.Outcome;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.Phase;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.PhaseTimer;
+import com.damienwesterman.defensedrill.security.service.AuthenticationResult;
+import com.damienwesterman.defensedrill.security.service.AuthenticationService;
+import com.damienwesterman.defensedrill.security.service.DrillUserDetails;
 import com.damienwesterman.defensedrill.security.service.JwtService;
+import com.damienwesterman.defensedrill.security.service.LoginJournalService;
+import com.damienwesterman.defensedrill.security.service.TokenIssuer;
 import com.damienwesterman.defensedrill.security.util.Constants;
+import com.damienwesterman.defensedrill.security.util.Roles;
 import com.damienwesterman.defensedrill.security.web.dto.LoginDTO;
 
 import jakarta.servlet.http.HttpServletResponse;
@@ -52,9 +58,13 @@ import lombok.RequiredArgsConstructor;
 @Controller
 @RequiredArgsConstructor
 public class WebAuthenticationController {
-    private final AuthenticationManager authManager;
-    private final DrillUserDetailsService userDetailsService;
+    private static final String LOGIN_ERROR_REDIRECT = "/login?error=Invalid%20Credentials";
+
+    private final AuthenticationService authenticationService;
     private final JwtService jwtService;
+    private final TokenIssuer tokenIssuer;
+    private final LoginJournalService loginJournalService;
+    private final AuthenticationMetrics metrics;
 
     @GetMapping("/login")
     public String loginPage(Model model,
@@ -69,39 +79,59 @@ public class WebAuthenticationController {
     public ResponseEntity<String> authenticate(HttpServletResponse response,
             @ModelAttribute LoginDTO login,
             @RequestParam(required = false, defaultValue = "/") String redirect){
-        Authentication authentication = authManager.authenticate(
-            new UsernamePasswordAuthenticationToken(
-                login.getUsername(), login.getPassword())
-        );
+        PhaseTimer timer = metrics.start(Phase.ATTEMPT);
+        Outcome outcome = Outcome.ERROR;
+        try {
+            AuthenticationResult result =
+                authenticationService.authenticate(login.getUsername(), login.getPassword(), null);
+            outcome = result.outcome();
+            if (Outcome.DEADLINE_EXCEEDED == outcome) {
+                // Nobody is waiting for a redirect anymore
+                return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+            } else if (!result.isSuccess()) {
+                // Redirect to login screen with error message
+                return ResponseEntity.status(HttpStatus.SEE_OTHER)
+                    .header(HttpHeaders.LOCATION, LOGIN_ERROR_REDIRECT)
+                    .build();
+            }
 
-        if(!authentication.isAuthenticated()){
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Invalid Credentials");
+            return logIn(result.userDetails(), redirect);
+        } finally {
+            metrics.stop(timer, outcome);
         }
+    }
 
-        String jwtToken = jwtService.generateToken(
-            userDetailsService.loadUserByUsername(login.getUsername())
-        );
+    private ResponseEntity<String> logIn(DrillUserDetails userDetails, String redirect) {
+        String jwtToken = tokenIssuer.issueToken(userDetails);
+        loginJournalService.recordLogin(userDetails.getUsername());
 
         // set accessToken to cookie header
+        PhaseTimer timer = metrics.start(Phase.COOKIE_BUILD);
         ResponseCookie jwtCookie = ResponseCookie.from("jwt", jwtToken)
                 .httpOnly(true)
                 .secure(Constants.isProductionServer())
                 .sameSite("Strict")
                 .path("/")
                 .maxAge(jwtService.getMillisValid(
-                    jwtService.extractRoles(jwtToken)
+                    Roles.fromAuthorities(userDetails.getAuthorities())
                 ))
                 .build();
+        String cookieHeader = jwtCookie.toString();
+        metrics.stop(timer, Outcome.SUCCESS);
 
         return ResponseEntity.status(HttpStatus.SEE_OTHER)
             .header(HttpHeaders.LOCATION, redirect)
-            .header(HttpHeaders.SET_COOKIE, jwtCookie.toString())
+            .header(HttpHeaders.SET_COOKIE, cookieHeader)
             .build();
     }
 
     @GetMapping("/log_out")
-    public String logoutPage(HttpServletResponse response) {
-        // Just clear out and expire the cookie
+    public String logoutPage(HttpServletResponse response,
+            @CookieValue(name = "jwt", required = false) String token) {
+        // Reference tokens can be revoked server side, JWTs simply expire
+        tokenIssuer.revoke(token);
+
+        // Clear out and expire the cookie
         ResponseCookie clearCookie = ResponseCookie.from("jwt", "")
                 .httpOnly(true)
                 .secure(Constants.isProductionServer())
@@ -33,6 +33,8 @@ import org.springframework.lang.Nullable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.damienwesterman.defensedrill.security.entity.UserEntity;
+import com.damienwesterman.defensedrill.security.exception.DatabaseInsertException;
+import com.damienwesterman.defensedrill.security.util.Roles;
 
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -55,19 +57,35 @@ public class UserFormDTO {
     @NotNull
     private List<String> roles;
 
+    /**
+     * Version of the user this update was based on. Optional, when present the update is rejected if
+     * the user has been changed since.
+     */
+    @Nullable
+    private Long version;
+
     /**
      * Transform this DTO into a UserEntity.
      *
      * @param id UserEntity ID
      * @param passwordEncoder Password encoder
      * @return UserEntity representation
+     * @throws DatabaseInsertException If any of the roles are unknown
      */
     public UserEntity toEntity(@Nullable Long id, @NonNull PasswordEncoder passwordEncoder) {
+        Roles parsedRoles;
+        try {
+            parsedRoles = Roles.fromNames(roles);
+        } catch (IllegalArgumentException e) {
+            throw new DatabaseInsertException("Roles are not valid", e);
+        }
+
         return UserEntity.builder()
             .id(id)
             .name(this.username)
             .password(passwordEncoder.encode(this.password))
-            .roles(String.join(",", roles))
+            .roles(parsedRoles)
+            .version(this.version)
             .build();
     }
 }
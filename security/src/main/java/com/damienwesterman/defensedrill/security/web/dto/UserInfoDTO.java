@@ -26,13 +26,12 @@
 
 package com.damienwesterman.defensedrill.security.web.dto;
 
-import java.util.List;
-
 import org.springframework.lang.NonNull;
 
 import com.damienwesterman.defensedrill.security.entity.UserEntity;
+import com.damienwesterman.defensedrill.security.repository.UserInfo;
+import com.damienwesterman.defensedrill.security.util.Roles;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -43,15 +42,35 @@ import lombok.Setter;
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public class UserInfoDTO {
     private Long id;
     private String username;
-    private List<String> roles;
+    private Roles roles;
+    private Long version;
 
     public UserInfoDTO(@NonNull UserEntity entity) {
         this.id = entity.getId();
         this.username = entity.getName();
-        this.roles = List.of(entity.getRoles().split(","));
+        this.roles = entity.getRoles();
+        this.version = entity.getVersion();
+    }
+
+    public UserInfoDTO(@NonNull UserInfo info) {
+        this(info.id(), info.name(), info.roles(), info.version());
+    }
+
+    /**
+     * All arguments constructor.
+     *
+     * @param id User ID
+     * @param username Username
+     * @param roles Roles
+     * @param version Optimistic locking version
+     */
+    public UserInfoDTO(Long id, String username, Roles roles, Long version) {
+        this.id = id;
+        this.username = username;
+        this.roles = roles;
+        this.version = version;
     }
 }
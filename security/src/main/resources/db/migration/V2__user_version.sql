@@ -0,0 +1,5 @@
+-- Optimistic locking version for concurrent user updates
+ALTER TABLE users
+    ADD COLUMN version BIGINT
+        NOT NULL
+        DEFAULT 0;
@@ -0,0 +1,6 @@
+-- Login tracking, used to find and clean up inactive accounts
+ALTER TABLE users
+    ADD COLUMN last_login TIMESTAMP WITH TIME ZONE,
+    ADD COLUMN login_count BIGINT
+        NOT NULL
+        DEFAULT 0;
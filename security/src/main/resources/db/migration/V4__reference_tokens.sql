@@ -0,0 +1,15 @@
+-- Opaque reference tokens, only used with defensedrill.token.mode=reference and
+-- defensedrill.token.reference.persistent=true. Only a SHA-256 hash of the token is stored.
+CREATE TABLE reference_tokens(
+    token_hash CHAR(64) NOT NULL PRIMARY KEY,
+    username VARCHAR(31)
+        NOT NULL,
+    roles VARCHAR(511)
+        NOT NULL,
+    issued_at TIMESTAMP WITH TIME ZONE
+        NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE
+        NOT NULL
+);
+
+CREATE INDEX index_reference_tokens_expires_at ON reference_tokens (expires_at);
@@ -0,0 +1,15 @@
+-- Token epoch, embedded in every issued token and bumped on every update. Tokens from an older epoch are
+-- rejected. Epochs are handed out from a single sequence, both to new users and on every change, so an
+-- epoch is never used twice and a user that is deleted and created again under the same name never
+-- accepts tokens issued to the old user.
+CREATE SEQUENCE users_token_epoch_seq;
+
+ALTER TABLE users
+    ADD COLUMN token_epoch BIGINT
+        NOT NULL
+        DEFAULT nextval('users_token_epoch_seq');
+
+ALTER SEQUENCE users_token_epoch_seq OWNED BY users.token_epoch;
+
+ALTER TABLE reference_tokens
+    ADD COLUMN token_epoch BIGINT;
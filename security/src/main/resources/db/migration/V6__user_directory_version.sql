@@ -0,0 +1,11 @@
+-- Version of the user directory, shared by every node and used as the ETag of the user listings. Bumped
+-- in every transaction that changes users, so the row lock orders the versions the same way as the
+-- commits.
+CREATE TABLE user_directory_version(
+    id SMALLINT NOT NULL PRIMARY KEY
+        CHECK (id = 1),
+    version BIGINT
+        NOT NULL
+);
+
+INSERT INTO user_directory_version (id, version) VALUES (1, 0);
@@ -0,0 +1,146 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.bulkhead;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.damienwesterman.defensedrill.security.exception.BulkheadFullException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BulkheadDataSourceTest {
+    AtomicInteger closedConnections = new AtomicInteger();
+    AtomicBoolean poolFailing = new AtomicBoolean(false);
+    Bulkhead bulkhead = new Bulkhead("login", List.of("/authenticate"), 10, 1, Duration.ofMillis(10),
+        new SimpleMeterRegistry());
+    BulkheadDataSource dataSource = new BulkheadDataSource(fakePool());
+
+    @BeforeEach
+    public void enter() {
+        assertTrue(bulkhead.tryEnter());
+    }
+
+    @AfterEach
+    public void exit() {
+        if (null != Bulkhead.current()) {
+            Bulkhead.current().exit();
+        }
+    }
+
+    @Test
+    public void test_getConnection_throwsBulkheadFull_onceBudgetIsUsed() throws SQLException {
+        Connection connection = dataSource.getConnection();
+
+        assertThrows(BulkheadFullException.class, () -> dataSource.getConnection());
+
+        connection.close();
+        dataSource.getConnection().close();
+        assertEquals(2, closedConnections.get());
+    }
+
+    @Test
+    public void test_close_releasesSlotOnlyOnce() throws SQLException {
+        Connection connection = dataSource.getConnection();
+
+        connection.close();
+        connection.close();
+
+        assertEquals(0, bulkhead.getActiveConnections());
+        Connection next = dataSource.getConnection();
+        assertEquals(1, bulkhead.getActiveConnections());
+        next.close();
+    }
+
+    @Test
+    public void test_poolFailure_releasesSlot() {
+        poolFailing.set(true);
+
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+
+        assertEquals(0, bulkhead.getActiveConnections());
+    }
+
+    @Test
+    public void test_unwrap_returnsBudgetedConnection() throws SQLException {
+        Connection connection = dataSource.getConnection();
+
+        assertSame(connection, connection.unwrap(Connection.class));
+        connection.close();
+    }
+
+    @Test
+    public void test_outsideBulkhead_isNotLimited() throws SQLException {
+        bulkhead.exit();
+
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+
+        assertEquals(0, bulkhead.getActiveConnections());
+        first.close();
+        second.close();
+    }
+
+    private DataSource fakePool() {
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { DataSource.class },
+            (proxy, method, args) -> {
+                if (!"getConnection".equals(method.getName())) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                if (poolFailing.get()) {
+                    throw new SQLException("Pool exhausted");
+                }
+                return fakeConnection();
+            });
+    }
+
+    private Connection fakeConnection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                if ("close".equals(method.getName())) {
+                    closedConnections.incrementAndGet();
+                }
+                return null;
+            });
+    }
+}
@@ -0,0 +1,123 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.bulkhead;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import com.damienwesterman.defensedrill.security.exception.BulkheadFullException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+
+public class BulkheadFilterTest {
+    Bulkhead bulkhead = new Bulkhead("login", List.of("/authenticate", "/authenticate/**"), 1, 1,
+        Duration.ofMillis(10), new SimpleMeterRegistry());
+    BulkheadFilter filter = new BulkheadFilter(List.of(bulkhead));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    public void test_request_runsInItsBulkhead() throws Exception {
+        AtomicBoolean ranInBulkhead = new AtomicBoolean(false);
+
+        filter.doFilter(request("/authenticate"), response,
+            (req, res) -> ranInBulkhead.set(bulkhead == Bulkhead.current()));
+
+        assertTrue(ranInBulkhead.get());
+        assertEquals(0, bulkhead.getActiveRequests());
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    public void test_fullBulkhead_answers503WithRetryAfter() throws Exception {
+        AtomicBoolean ran = new AtomicBoolean(false);
+        assertTrue(bulkhead.tryEnter());
+        try {
+            filter.doFilter(request("/authenticate/user"), response, (req, res) -> ran.set(true));
+        } finally {
+            bulkhead.exit();
+        }
+
+        assertFalse(ran.get());
+        assertEquals(503, response.getStatus());
+        assertEquals(Bulkhead.RETRY_AFTER_SECONDS, response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    public void test_connectionBudgetExhausted_inFilter_answers503() throws Exception {
+        FilterChain failing = (req, res) -> {
+            throw new CannotCreateTransactionException("Could not open JPA EntityManager",
+                new BulkheadFullException("Bulkhead login has no database connections left"));
+        };
+
+        filter.doFilter(request("/authenticate"), response, failing);
+
+        assertEquals(503, response.getStatus());
+        assertEquals(Bulkhead.RETRY_AFTER_SECONDS, response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(0, bulkhead.getActiveRequests());
+    }
+
+    @Test
+    public void test_otherFailure_isRethrown() {
+        FilterChain failing = (req, res) -> {
+            throw new IllegalStateException("Unrelated");
+        };
+
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(request("/authenticate"), response, failing));
+        assertEquals(0, bulkhead.getActiveRequests());
+    }
+
+    @Test
+    public void test_unmatchedPath_isNeverLimited() throws Exception {
+        AtomicBoolean ran = new AtomicBoolean(false);
+        assertTrue(bulkhead.tryEnter());
+        try {
+            filter.doFilter(request("/actuator/health"), response, (req, res) -> ran.set(true));
+        } finally {
+            bulkhead.exit();
+        }
+
+        assertTrue(ran.get());
+        assertEquals(200, response.getStatus());
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        return new MockHttpServletRequest("POST", path);
+    }
+}
@@ -0,0 +1,122 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.bulkhead;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.PathContainer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BulkheadTest {
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    Bulkhead bulkhead = new Bulkhead("login", List.of("/authenticate", "/authenticate/**"), 2, 1,
+        Duration.ofMillis(10), meterRegistry);
+
+    @AfterEach
+    public void cleanup() {
+        // Never leave the thread marked as running in a bulkhead for the next test
+        if (null != Bulkhead.current()) {
+            Bulkhead.current().exit();
+        }
+    }
+
+    @Test
+    public void test_matches_onlyConfiguredPaths() {
+        assertTrue(bulkhead.matches(PathContainer.parsePath("/authenticate")));
+        assertTrue(bulkhead.matches(PathContainer.parsePath("/authenticate/admin")));
+        assertFalse(bulkhead.matches(PathContainer.parsePath("/user")));
+    }
+
+    @Test
+    public void test_tryEnter_rejectsOnceFull_untilExit() {
+        assertTrue(bulkhead.tryEnter());
+        assertSame(bulkhead, Bulkhead.current());
+        assertTrue(bulkhead.tryEnter());
+
+        assertFalse(bulkhead.tryEnter());
+        assertEquals(2, bulkhead.getActiveRequests());
+        assertEquals(1, rejected("request"));
+
+        bulkhead.exit();
+        assertNull(Bulkhead.current());
+        assertTrue(bulkhead.tryEnter());
+        bulkhead.exit();
+        bulkhead.exit();
+        assertEquals(0, bulkhead.getActiveRequests());
+    }
+
+    @Test
+    public void test_tryAcquireConnection_rejectsOnceFull_untilReleased() {
+        assertTrue(bulkhead.tryAcquireConnection());
+
+        assertFalse(bulkhead.tryAcquireConnection());
+        assertEquals(1, bulkhead.getActiveConnections());
+        assertEquals(1, rejected("connection"));
+
+        bulkhead.releaseConnection();
+        assertTrue(bulkhead.tryAcquireConnection());
+        bulkhead.releaseConnection();
+        assertEquals(0, bulkhead.getActiveConnections());
+    }
+
+    @Test
+    public void test_fullBulkhead_waitsForAFreedSlot() throws InterruptedException {
+        Bulkhead patient = new Bulkhead("users", List.of("/user"), 1, 1, Duration.ofSeconds(10), meterRegistry);
+        assertTrue(patient.tryAcquireConnection());
+
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            patient.releaseConnection();
+        });
+        releaser.start();
+
+        assertTrue(patient.tryAcquireConnection());
+        releaser.join();
+    }
+
+    private double rejected(String resource) {
+        return meterRegistry.get("security.bulkhead.rejected")
+            .tag("bulkhead", "login")
+            .tag("resource", resource)
+            .counter().count();
+    }
+}
@@ -0,0 +1,102 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.deadline;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class DeadlineFilterTest {
+    DeadlineFilter filter = new DeadlineFilter(Duration.ofSeconds(5).toNanos());
+
+    @Test
+    public void test_noHeader_usesDefaultTimeout() throws Exception {
+        assertFalse(isExpiredWhenRun(null, 0));
+    }
+
+    @Test
+    public void test_zeroOrNegativeBudget_isExpiredOnArrival() throws Exception {
+        assertTrue(isExpiredWhenRun("0", 0));
+        assertTrue(isExpiredWhenRun("-250", 0));
+    }
+
+    @Test
+    public void test_budget_isMeasuredFromArrival() throws Exception {
+        assertFalse(isExpiredWhenRun("1000", 0));
+        assertTrue(isExpiredWhenRun(" 20 ", 50));
+    }
+
+    @Test
+    public void test_budget_isCappedAtDefaultTimeout() throws Exception {
+        DeadlineFilter shortDefault = new DeadlineFilter(Duration.ofMillis(20).toNanos());
+
+        assertTrue(isExpiredWhenRun(shortDefault, "60000", 50));
+    }
+
+    @Test
+    public void test_malformedHeader_usesDefaultTimeout() throws Exception {
+        assertFalse(isExpiredWhenRun("soon", 0));
+        // An absolute timestamp is just a very large budget, capped at the default
+        assertFalse(isExpiredWhenRun(Long.toString(System.currentTimeMillis()), 0));
+    }
+
+    @Test
+    public void test_deadline_isClearedAfterRequest() throws Exception {
+        isExpiredWhenRun("0", 0);
+
+        assertFalse(RequestDeadline.isExpired());
+    }
+
+    private boolean isExpiredWhenRun(String header, long delayMillis) throws Exception {
+        return isExpiredWhenRun(filter, header, delayMillis);
+    }
+
+    private static boolean isExpiredWhenRun(DeadlineFilter filter, String header, long delayMillis)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/authenticate");
+        if (null != header) {
+            request.addHeader(DeadlineFilter.TIMEOUT_HEADER, header);
+        }
+
+        AtomicBoolean expired = new AtomicBoolean();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            expired.set(RequestDeadline.isExpired());
+        });
+        return expired.get();
+    }
+}
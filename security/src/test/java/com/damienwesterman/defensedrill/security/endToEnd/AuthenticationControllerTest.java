@@ -0,0 +1,203 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.endToEnd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import com.damienwesterman.defensedrill.security.client.UserRoles;
+import com.damienwesterman.defensedrill.security.entity.UserEntity;
+import com.damienwesterman.defensedrill.security.repository.UserRepository;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics.Phase;
+import com.damienwesterman.defensedrill.security.service.JwtService;
+import com.damienwesterman.defensedrill.security.util.Roles;
+import com.damienwesterman.defensedrill.security.web.RestAuthenticationController;
+import com.damienwesterman.defensedrill.security.web.dto.LoginDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@SuppressWarnings("null")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class AuthenticationControllerTest {
+    @Autowired
+    TestRestTemplate restTemplate;
+    @Autowired
+    UserRepository repo;
+    @Autowired
+    PasswordEncoder passwordEncoder;
+    @Autowired
+    JwtService jwtService;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    final String USERNAME = "Username 1";
+    final String PASSWORD = "Password 1";
+    final String INVALID_CREDENTIALS = "Invalid Credentials";
+    final String LOGIN_ERROR_REDIRECT = "/login?error=Invalid%20Credentials";
+
+    @BeforeEach
+    public void setup() {
+        repo.deleteAll();
+        repo.save(UserEntity.builder()
+            .name(USERNAME)
+            .password(passwordEncoder.encode(PASSWORD))
+            .roles(Roles.of(UserRoles.USER))
+            .build());
+    }
+
+    @Test
+    public void test_authenticate_returnsJwt_withCorrectCredentials() {
+        ResponseEntity<String> response = authenticate(RestAuthenticationController.ENDPOINT, USERNAME, PASSWORD);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(USERNAME, jwtService.extractUsername(response.getBody()));
+    }
+
+    @Test
+    public void test_authenticate_fails401_withWrongPassword() {
+        ResponseEntity<String> response =
+            authenticate(RestAuthenticationController.ENDPOINT, USERNAME, "Wrong Password");
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        assertEquals(INVALID_CREDENTIALS, response.getBody());
+    }
+
+    @Test
+    public void test_authenticate_fails401_withUnknownUser() {
+        ResponseEntity<String> response =
+            authenticate(RestAuthenticationController.ENDPOINT, "Unknown User", PASSWORD);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        assertEquals(INVALID_CREDENTIALS, response.getBody());
+    }
+
+    @Test
+    public void test_authenticateForRole_fails401_withRoleNotHeld() {
+        ResponseEntity<String> response = authenticate(
+            RestAuthenticationController.ENDPOINT + "/" + UserRoles.ADMIN.getStringRepresentation(),
+            USERNAME, PASSWORD);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    public void test_authenticate_fails504_withoutUserLookup_whenBudgetIsSpent() {
+        double lookups = userLookups();
+        double expired = meterRegistry.get("security.deadline.exceeded")
+            .tag("phase", Phase.USER_LOOKUP.getTagValue())
+            .counter().count();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Request-Timeout-Ms", "0");
+
+        ResponseEntity<String> response = restTemplate.postForEntity(
+            URI.create(RestAuthenticationController.ENDPOINT),
+            new HttpEntity<>(login(USERNAME, PASSWORD), headers), String.class);
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+        assertEquals(lookups, userLookups());
+        assertEquals(expired + 1, meterRegistry.get("security.deadline.exceeded")
+            .tag("phase", Phase.USER_LOOKUP.getTagValue())
+            .counter().count());
+    }
+
+    @Test
+    public void test_logIn_redirectsWithCookie_withCorrectCredentials() {
+        ResponseEntity<String> response = logIn(USERNAME, PASSWORD, "/home");
+
+        assertEquals(HttpStatus.SEE_OTHER, response.getStatusCode());
+        assertEquals(URI.create("/home"), response.getHeaders().getLocation());
+        String cookie = response.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+        assertNotNull(cookie);
+        assertTrue(cookie.startsWith("jwt="));
+    }
+
+    @Test
+    public void test_logIn_redirectsToLoginError_withWrongPassword() {
+        ResponseEntity<String> response = logIn(USERNAME, "Wrong Password", "/home");
+
+        assertEquals(HttpStatus.SEE_OTHER, response.getStatusCode());
+        assertEquals(URI.create(LOGIN_ERROR_REDIRECT), response.getHeaders().getLocation());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.SET_COOKIE));
+    }
+
+    @Test
+    public void test_logIn_redirectsToLoginError_withUnknownUser() {
+        ResponseEntity<String> response = logIn("Unknown User", PASSWORD, "/home");
+
+        assertEquals(HttpStatus.SEE_OTHER, response.getStatusCode());
+        assertEquals(URI.create(LOGIN_ERROR_REDIRECT), response.getHeaders().getLocation());
+    }
+
+    private ResponseEntity<String> authenticate(String endpoint, String username, String password) {
+        return restTemplate.postForEntity(URI.create(endpoint), login(username, password), String.class);
+    }
+
+    private static LoginDTO login(String username, String password) {
+        LoginDTO login = new LoginDTO();
+        login.setUsername(username);
+        login.setPassword(password);
+        return login;
+    }
+
+    private double userLookups() {
+        return meterRegistry.find(AuthenticationMetrics.TIMER_NAME)
+            .tag("phase", Phase.USER_LOOKUP.getTagValue())
+            .timers().stream()
+            .mapToDouble(Timer::count)
+            .sum();
+    }
+
+    private ResponseEntity<String> logIn(String username, String password, String redirect) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("username", username);
+        form.add("password", password);
+        return restTemplate.postForEntity(URI.create("/log_in?redirect=" + redirect),
+            new HttpEntity<>(form, headers), String.class);
+    }
+}
@@ -0,0 +1,119 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.endToEnd;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.damienwesterman.defensedrill.security.client.UserRoles;
+import com.damienwesterman.defensedrill.security.entity.UserEntity;
+import com.damienwesterman.defensedrill.security.repository.UserRepository;
+import com.damienwesterman.defensedrill.security.service.DrillUserDetailsService;
+import com.damienwesterman.defensedrill.security.service.JwtService;
+import com.damienwesterman.defensedrill.security.service.UserService;
+import com.damienwesterman.defensedrill.security.util.Roles;
+
+@SuppressWarnings("null")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class JfrEndpointTest {
+    @Autowired
+    TestRestTemplate restTemplate;
+    @Autowired
+    JwtService jwtService;
+    @Autowired
+    UserService userService;
+    @Autowired
+    UserRepository repo;
+    @Autowired
+    DrillUserDetailsService userDetailsService;
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
+    final String ENDPOINT = "/actuator/jfr";
+    final byte[] JFR_MAGIC = { 'F', 'L', 'R', 0 };
+
+    @BeforeEach
+    public void setup() {
+        repo.deleteAll();
+    }
+
+    @Test
+    public void test_record_fails403_withoutJwt() {
+        ResponseEntity<byte[]> response = record(null);
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+    }
+
+    @Test
+    public void test_record_fails403_forNonAdmin() {
+        ResponseEntity<byte[]> response = record(jwtFor(UserRoles.USER));
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+    }
+
+    @Test
+    public void test_record_returnsRecording_forAdmin() {
+        ResponseEntity<byte[]> response = record(jwtFor(UserRoles.ADMIN));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(JFR_MAGIC, Arrays.copyOf(response.getBody(), JFR_MAGIC.length));
+    }
+
+    private ResponseEntity<byte[]> record(String jwt) {
+        HttpHeaders headers = new HttpHeaders();
+        if (null != jwt) {
+            headers.setBearerAuth(jwt);
+        }
+
+        return restTemplate.postForEntity(ENDPOINT,
+            new HttpEntity<>(Map.of("duration", "1s", "settings", "default"), headers), byte[].class);
+    }
+
+    private String jwtFor(UserRoles role) {
+        // Tokens are only accepted for existing users, in their current token epoch
+        UserEntity user = userService.create(UserEntity.builder()
+            .name("Username 1")
+            .password(passwordEncoder.encode("Password 1"))
+            .roles(Roles.of(role))
+            .build());
+        return jwtService.generateToken(userDetailsService.loadUserByUsername(user.getName()));
+    }
+}
@@ -0,0 +1,149 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.endToEnd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.damienwesterman.defensedrill.security.client.UserRoles;
+import com.damienwesterman.defensedrill.security.entity.UserEntity;
+import com.damienwesterman.defensedrill.security.service.UserService;
+import com.damienwesterman.defensedrill.security.util.Roles;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Runs against two independent local databases (no replication between them) so it is visible which
+ * one each read was served from. The replica defaults to a second postgres on port 5433.
+ */
+@SuppressWarnings("null")
+@SpringBootTest(properties = {
+    "defensedrill.datasource.replica.jdbc-url=${REPLICA_DB_URL:jdbc:postgresql://localhost:5433/users}",
+    "defensedrill.datasource.read-your-writes-window=500ms"
+})
+public class ReadReplicaRoutingTest {
+    @Autowired
+    UserService service;
+    @Autowired
+    PasswordEncoder passwordEncoder;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    DataSource primaryDataSource;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    DataSource replicaDataSource;
+
+    JdbcTemplate primary;
+    JdbcTemplate replica;
+
+    final String REPLICA_ONLY_USERNAME = "Replica Only";
+    final String USERNAME = "Username 1";
+
+    @BeforeEach
+    public void setup() {
+        Flyway.configure().dataSource(replicaDataSource).load().migrate();
+
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        primary.update("DELETE FROM users");
+        replica.update("DELETE FROM users");
+        evictSecondLevelCache();
+        replica.update("INSERT INTO users (name, password, roles) VALUES (?, ?, ?)",
+            REPLICA_ONLY_USERNAME, passwordEncoder.encode("Password 1"), UserRoles.USER.getStringRepresentation());
+    }
+
+    @Test
+    public void test_readOnlyFind_isServedByReplica() {
+        assertTrue(service.find(REPLICA_ONLY_USERNAME).isPresent());
+    }
+
+    @Test
+    public void test_create_isWrittenToPrimaryOnly() {
+        service.create(newUser());
+
+        assertEquals(1, primary.queryForObject("SELECT COUNT(*) FROM users WHERE name = ?", Integer.class, USERNAME));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM users WHERE name = ?", Integer.class, USERNAME));
+    }
+
+    @Test
+    public void test_readAfterCreate_isServedByPrimary_untilWindowExpires() throws InterruptedException {
+        service.create(newUser());
+
+        // Read your writes: the replica does not have this row, so it must have come from the primary
+        assertTrue(service.find(USERNAME).isPresent());
+
+        Thread.sleep(750);
+        // Otherwise the lookup is answered by the second level cache and never reaches either database
+        evictSecondLevelCache();
+
+        assertFalse(service.find(USERNAME).isPresent());
+        assertTrue(service.find(REPLICA_ONLY_USERNAME).isPresent());
+    }
+
+    @Test
+    public void test_readAfterRemoteChange_isServedByPrimary() throws InterruptedException {
+        // Another node creates a user and announces it, this node has never seen it
+        primary.update("INSERT INTO users (name, password, roles) VALUES (?, ?, ?)",
+            USERNAME, passwordEncoder.encode("Password 1"), UserRoles.USER.getStringRepresentation());
+        Long id = primary.queryForObject("SELECT id FROM users WHERE name = ?", Long.class, USERNAME);
+        primary.queryForObject("SELECT pg_notify(?, ?)", Object.class, "defensedrill_user_changes", "othernode:" + id);
+
+        // Only the primary has the row, so finding it shows the notification pinned reads to the primary
+        long deadline = System.currentTimeMillis() + 5000;
+        while (service.find(USERNAME).isEmpty()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Reads were not pinned to the primary");
+            Thread.sleep(20);
+        }
+    }
+
+    private void evictSecondLevelCache() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    private UserEntity newUser() {
+        return UserEntity.builder()
+            .name(USERNAME)
+            .password(passwordEncoder.encode("Password 1"))
+            .roles(Roles.of(UserRoles.USER))
+            .build();
+    }
+}
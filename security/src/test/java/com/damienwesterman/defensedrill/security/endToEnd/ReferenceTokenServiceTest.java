@@ -0,0 +1,200 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.endToEnd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.damienwesterman.defensedrill.security.client.UserRoles;
+import com.damienwesterman.defensedrill.security.client.VerifiedToken;
+import com.damienwesterman.defensedrill.security.entity.UserEntity;
+import com.damienwesterman.defensedrill.security.repository.UserRepository;
+import com.damienwesterman.defensedrill.security.service.AuthenticationMetrics;
+import com.damienwesterman.defensedrill.security.service.DrillUserDetails;
+import com.damienwesterman.defensedrill.security.service.DrillUserDetailsService;
+import com.damienwesterman.defensedrill.security.service.JwtService;
+import com.damienwesterman.defensedrill.security.service.ReferenceTokenService;
+import com.damienwesterman.defensedrill.security.service.TokenEpochs;
+import com.damienwesterman.defensedrill.security.service.UserService;
+import com.damienwesterman.defensedrill.security.util.Roles;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Plays a second node with its own {@link ReferenceTokenService} sharing the same table.
+ */
+@SuppressWarnings("null")
+@SpringBootTest(properties = {
+    "defensedrill.token.mode=reference",
+    "defensedrill.token.reference.persistent=true",
+    "defensedrill.token.reference.remote-ttl=200ms"
+})
+public class ReferenceTokenServiceTest {
+    @Autowired
+    ReferenceTokenService service;
+    @Autowired
+    JwtService jwtService;
+    @Autowired
+    AuthenticationMetrics metrics;
+    @Autowired
+    TokenEpochs tokenEpochs;
+    @Autowired
+    UserService userService;
+    @Autowired
+    UserRepository repo;
+    @Autowired
+    DrillUserDetailsService userDetailsService;
+    @Autowired
+    PasswordEncoder passwordEncoder;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    final String USERNAME = "Username 1";
+
+    ReferenceTokenService otherNode;
+    UserEntity user;
+    DrillUserDetails userDetails;
+
+    @BeforeEach
+    public void setup() {
+        repo.deleteAll();
+        jdbcTemplate.update("DELETE FROM reference_tokens");
+        user = userService.create(UserEntity.builder()
+            .name(USERNAME)
+            .password(passwordEncoder.encode("Password 1"))
+            .roles(Roles.of(UserRoles.ADMIN))
+            .build());
+        userDetails = userDetailsService.loadUserByUsername(USERNAME);
+        otherNode = new ReferenceTokenService(jwtService, metrics, tokenEpochs, jdbcTemplate,
+            new SimpleMeterRegistry(), 1000, true, Duration.ofMillis(200));
+    }
+
+    @Test
+    public void test_issue_thenVerify_returnsUserAndRoles() {
+        String token = service.issueToken(userDetails);
+
+        VerifiedToken verified = service.verify(token);
+
+        assertNotNull(verified);
+        assertEquals(USERNAME, verified.username());
+        assertTrue(verified.grants(UserRoles.ADMIN));
+        assertTrue(verified.grants(UserRoles.USER));
+        assertTrue(verified.expiresAt().isAfter(verified.issuedAt()));
+    }
+
+    @Test
+    public void test_verify_unknownOrBlankToken_isRejected() {
+        assertNull(service.verify("not-a-token"));
+        assertNull(service.verify(" "));
+        assertNull(service.verify(null));
+    }
+
+    @Test
+    public void test_malformedOrUnknownTokens_costAtMostOneQuery() {
+        AtomicInteger queries = new AtomicInteger();
+        ReferenceTokenService countingNode = new ReferenceTokenService(jwtService, metrics, tokenEpochs,
+            new JdbcTemplate(new DelegatingDataSource(jdbcTemplate.getDataSource()) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    queries.incrementAndGet();
+                    return super.getConnection();
+                }
+            }),
+            new SimpleMeterRegistry(), 1000, true, Duration.ofSeconds(30));
+
+        assertNull(countingNode.verify("not-a-token"));
+        assertNull(countingNode.verify(jwtService.generateToken(userDetails)));
+        assertNull(countingNode.verify("AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA="));
+        assertEquals(0, queries.get());
+
+        String unknown = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+        assertNull(countingNode.verify(unknown));
+        assertNull(countingNode.verify(unknown));
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    public void test_revoke_rejectsToken_andDeletesRow() {
+        String token = service.issueToken(userDetails);
+
+        service.revoke(token);
+
+        assertNull(service.verify(token));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reference_tokens", Integer.class));
+    }
+
+    @Test
+    public void test_otherNode_loadsTokenFromTable_withSameContents() {
+        String token = service.issueToken(userDetails);
+
+        VerifiedToken loaded = otherNode.verify(token);
+
+        assertNotNull(loaded);
+        assertEquals(service.verify(token).username(), loaded.username());
+        assertEquals(service.verify(token).roles(), loaded.roles());
+        assertEquals(service.verify(token).tokenEpoch(), loaded.tokenEpoch());
+    }
+
+    @Test
+    public void test_revokeOnOtherNode_isSeenWithinRemoteTtl() throws InterruptedException {
+        String token = service.issueToken(userDetails);
+        assertNotNull(otherNode.verify(token));
+
+        otherNode.revoke(token);
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (null != service.verify(token)) {
+            assertTrue(System.currentTimeMillis() < deadline, "Revoked token still accepted");
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    public void test_userChange_rejectsToken() {
+        String token = service.issueToken(userDetails);
+
+        userService.delete(user.getId());
+
+        assertNull(service.verify(token));
+        assertNull(otherNode.verify(token));
+    }
+}
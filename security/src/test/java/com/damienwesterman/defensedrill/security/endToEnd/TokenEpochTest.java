@@ -0,0 +1,193 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.endToEnd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.damienwesterman.defensedrill.security.client.UserRoles;
+import com.damienwesterman.defensedrill.security.client.VerifiedToken;
+import com.damienwesterman.defensedrill.security.entity.UserEntity;
+import com.damienwesterman.defensedrill.security.repository.UserRepository;
+import com.damienwesterman.defensedrill.security.service.DrillUserDetails;
+import com.damienwesterman.defensedrill.security.service.DrillUserDetailsService;
+import com.damienwesterman.defensedrill.security.service.JwtService;
+import com.damienwesterman.defensedrill.security.service.TokenEpochs;
+import com.damienwesterman.defensedrill.security.service.UserInvalidatedEvent;
+import com.damienwesterman.defensedrill.security.service.UserService;
+import com.damienwesterman.defensedrill.security.util.Roles;
+
+@SuppressWarnings("null")
+@SpringBootTest
+public class TokenEpochTest {
+    @Autowired
+    JwtService jwtService;
+    @Autowired
+    TokenEpochs tokenEpochs;
+    @Autowired
+    UserService service;
+    @Autowired
+    UserRepository repo;
+    @Autowired
+    DrillUserDetailsService userDetailsService;
+    @Autowired
+    PasswordEncoder passwordEncoder;
+    @Autowired
+    DataSource dataSource;
+
+    final String USERNAME = "Username 1";
+
+    UserEntity user;
+
+    @BeforeEach
+    public void setup() {
+        repo.deleteAll();
+        user = createUser(UserRoles.ADMIN);
+    }
+
+    @Test
+    public void test_token_isAccepted_untilUserIsUpdated() {
+        String jwt = issueToken();
+        assertNotNull(jwtService.verify(jwt));
+
+        user.setRoles(Roles.of(UserRoles.USER));
+        service.update(user);
+
+        assertNull(jwtService.verify(jwt));
+        assertNotNull(jwtService.verify(issueToken()));
+    }
+
+    @Test
+    public void test_token_isRejected_afterUserIsDeleted() {
+        createUser("Username 2", UserRoles.ADMIN);
+        String jwt = issueToken();
+
+        service.delete(user.getId());
+
+        assertNull(jwtService.verify(jwt));
+    }
+
+    @Test
+    public void test_oldUsersToken_isRejected_afterUserIsCreatedAgain() {
+        createUser("Username 2", UserRoles.ADMIN);
+        String jwt = issueToken();
+
+        service.delete(user.getId());
+        user = createUser(UserRoles.ADMIN);
+
+        assertNull(jwtService.verify(jwt));
+        assertNotNull(jwtService.verify(issueToken()));
+    }
+
+    @Test
+    public void test_token_isRejected_whenUserChangesBetweenLookupAndIssuing() {
+        // What the login path does: authenticate against a loaded snapshot, then issue from it
+        DrillUserDetails userDetails = userDetailsService.loadUserByUsername(USERNAME);
+
+        user.setRoles(Roles.of(UserRoles.USER));
+        service.update(user);
+        String jwt = jwtService.generateToken(userDetails);
+
+        // Carries the old admin role, so it must not carry the new epoch
+        assertNull(jwtService.verify(jwt));
+    }
+
+    @Test
+    public void test_isCurrent_rejectsTokenWithoutEpoch() {
+        Instant now = Instant.now();
+        VerifiedToken token = new VerifiedToken(USERNAME, Set.of(UserRoles.USER), now, now.plusSeconds(60), null);
+
+        assertFalse(tokenEpochs.isCurrent(token));
+        assertTrue(tokenEpochs.isCurrent(jwtService.verify(issueToken())));
+    }
+
+    @Test
+    public void test_deletedOrUnknownUsersToken_isRejected_withoutQueryPerVerification() {
+        AtomicInteger queries = new AtomicInteger();
+        TokenEpochs epochs = new TokenEpochs(new JdbcTemplate(new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                queries.incrementAndGet();
+                return super.getConnection();
+            }
+        }));
+        createUser("Username 2", UserRoles.ADMIN);
+        VerifiedToken token = jwtService.verify(issueToken());
+        assertTrue(epochs.isCurrent(token));
+
+        service.delete(user.getId());
+        // Not a bean, so it has to be told about the change by hand
+        epochs.onUserInvalidated(new UserInvalidatedEvent(Set.of(user.getId()), null));
+        queries.set(0);
+
+        assertFalse(epochs.isCurrent(token));
+        assertFalse(epochs.isCurrent(token));
+        assertEquals(0, queries.get());
+
+        Instant now = Instant.now();
+        VerifiedToken unknown = new VerifiedToken("Nobody", Set.of(UserRoles.USER), now, now.plusSeconds(60),
+            token.tokenEpoch());
+        assertFalse(epochs.isCurrent(unknown));
+        assertFalse(epochs.isCurrent(unknown));
+        assertEquals(1, queries.get());
+    }
+
+    private String issueToken() {
+        return jwtService.generateToken(userDetailsService.loadUserByUsername(USERNAME));
+    }
+
+    private UserEntity createUser(UserRoles role) {
+        return createUser(USERNAME, role);
+    }
+
+    private UserEntity createUser(String name, UserRoles role) {
+        return service.create(UserEntity.builder()
+            .name(name)
+            .password(passwordEncoder.encode("Password 1"))
+            .roles(Roles.of(role))
+            .build());
+    }
+}
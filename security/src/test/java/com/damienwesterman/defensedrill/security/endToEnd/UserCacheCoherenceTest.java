@@ -0,0 +1,182 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.endToEnd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.damienwesterman.defensedrill.security.client.UserRoles;
+import com.damienwesterman.defensedrill.security.entity.UserEntity;
+import com.damienwesterman.defensedrill.security.repository.UserRepository;
+import com.damienwesterman.defensedrill.security.service.UserDirectoryVersion;
+import com.damienwesterman.defensedrill.security.service.UserInvalidatedEvent;
+import com.damienwesterman.defensedrill.security.service.UserService;
+import com.damienwesterman.defensedrill.security.util.Roles;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Plays the other node by sending notifications straight to PostgreSQL.
+ */
+@SuppressWarnings("null")
+@SpringBootTest
+public class UserCacheCoherenceTest {
+    @Autowired
+    UserService service;
+    @Autowired
+    UserRepository repo;
+    @Autowired
+    UserDirectoryVersion directoryVersion;
+    @Autowired
+    PasswordEncoder passwordEncoder;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    final String CHANNEL = "defensedrill_user_changes";
+
+    UserEntity user;
+
+    @BeforeEach
+    public void setup() {
+        repo.deleteAll();
+        user = service.create(UserEntity.builder()
+            .name("Username 1")
+            .password(passwordEncoder.encode("Password 1"))
+            .roles(Roles.of(UserRoles.USER))
+            .build());
+        // Loading it puts it in the second level cache
+        service.find(user.getId());
+    }
+
+    @Test
+    public void test_remoteNotification_evictsUser_andMovesToItsDirectoryVersion() throws InterruptedException {
+        assertTrue(isCached(user.getId()));
+        // What the other node's changing transaction does
+        Long version = jdbcTemplate.queryForObject(
+            "UPDATE user_directory_version SET version = version + 1 WHERE id = 1 RETURNING version", Long.class);
+
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, CHANNEL,
+            "othernode:" + user.getId() + ":" + version);
+
+        awaitCondition(() -> !isCached(user.getId()));
+        awaitCondition(() -> ("\"" + version + "\"").equals(directoryVersion.getETag()));
+    }
+
+    @Test
+    public void test_directoryVersion_isSharedByEveryNode() {
+        UserDirectoryVersion otherNode = new UserDirectoryVersion(jdbcTemplate);
+        assertEquals(directoryVersion.getETag(), otherNode.getETag());
+
+        user.setRoles(Roles.of(UserRoles.ADMIN));
+        service.update(user);
+
+        // Without the notification the other node keeps its older version, never a newer one
+        assertNotEquals(directoryVersion.getETag(), otherNode.getETag());
+        otherNode.onUserInvalidated(new UserInvalidatedEvent(null, null));
+        assertEquals(directoryVersion.getETag(), otherNode.getETag());
+    }
+
+    @Test
+    public void test_remoteBulkNotification_evictsEveryListedUser() throws InterruptedException {
+        UserEntity second = service.create(UserEntity.builder()
+            .name("Username 2")
+            .password(passwordEncoder.encode("Password 2"))
+            .roles(Roles.of(UserRoles.USER))
+            .build());
+        service.find(second.getId());
+        assertTrue(isCached(user.getId()));
+        assertTrue(isCached(second.getId()));
+
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, CHANNEL,
+            "othernode:" + user.getId() + "," + second.getId());
+
+        awaitCondition(() -> !isCached(user.getId()) && !isCached(second.getId()));
+    }
+
+    @Test
+    public void test_remoteNotificationForAllUsers_evictsEveryUser() throws InterruptedException {
+        assertTrue(isCached(user.getId()));
+
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, CHANNEL, "othernode:*");
+
+        awaitCondition(() -> !isCached(user.getId()));
+    }
+
+    @Test
+    public void test_malformedNotification_doesNotStopListener() throws InterruptedException {
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, CHANNEL, "garbage");
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, CHANNEL, "othernode:not-a-number");
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, CHANNEL, "othernode:" + user.getId());
+
+        awaitCondition(() -> !isCached(user.getId()));
+    }
+
+    @Test
+    public void test_lostConnection_invalidatesEverything_afterReconnecting() throws InterruptedException {
+        double resyncs = resyncCount();
+        assertTrue(isCached(user.getId()));
+
+        // Kill the listening connection, changes made meanwhile are never announced to this node
+        jdbcTemplate.queryForList(
+            "SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE query LIKE 'LISTEN %'");
+
+        awaitCondition(() -> resyncCount() > resyncs);
+        assertFalse(isCached(user.getId()));
+    }
+
+    private boolean isCached(Long id) {
+        return entityManagerFactory.getCache().contains(UserEntity.class, id);
+    }
+
+    private double resyncCount() {
+        return meterRegistry.get("security.cache.invalidations.resync").counter().count();
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met in time");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -38,14 +38,19 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import com.damienwesterman.defensedrill.security.client.UserRoles;
 import com.damienwesterman.defensedrill.security.entity.UserEntity;
 import com.damienwesterman.defensedrill.security.repository.UserRepository;
-import com.damienwesterman.defensedrill.security.util.Constants.UserRoles;
+import com.damienwesterman.defensedrill.security.util.Roles;
 import com.damienwesterman.defensedrill.security.web.UsersController;
+import com.damienwesterman.defensedrill.security.web.dto.BulkUsersDTO;
 import com.damienwesterman.defensedrill.security.web.dto.UserFormDTO;
 import com.damienwesterman.defensedrill.security.web.dto.UserInfoDTO;
 
@@ -72,13 +77,13 @@ public class UsersControllerTest {
             .id(null)
             .name(USERNAME)
             .password(passwordEncoder.encode(PASSWORD))
-            .roles(UserRoles.USER.getStringRepresentation())
+            .roles(Roles.of(UserRoles.USER))
             .build();
     }
 
     @Test
     public void test_create_succeeds_withCorrectFields() {
-        user.setRoles(UserRoles.USER.getStringRepresentation());
+        user.setRoles(Roles.of(UserRoles.USER));
 
         ResponseEntity<UserInfoDTO> response =
             restTemplate.postForEntity(
@@ -119,16 +124,18 @@ public class UsersControllerTest {
             );
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(response.getBody().contains("Name already exists."));
     }
 
     @Test
     public void test_create_fails_withInvalidRole() {
-        user.setRoles("Invalid");
+        UserFormDTO createUser = entityToFormDto(user, PASSWORD);
+        createUser.setRoles(List.of("Invalid"));
 
         ResponseEntity<String> response =
             restTemplate.postForEntity(
                 URI.create(UsersController.ENDPOINT),
-                entityToFormDto(user, PASSWORD),
+                createUser,
                 String.class
             );
 
@@ -163,13 +170,13 @@ public class UsersControllerTest {
 
     @Test
     public void test_findAllByRole_returnsSuccessfully_withMatchingRoles() {
-        user.setRoles(UserRoles.USER.getStringRepresentation());
+        user.setRoles(Roles.of(UserRoles.USER));
         repo.save(user);
 
         UserEntity user2 = UserEntity.builder()
             .name("Name 2")
             .password(passwordEncoder.encode("Password 2"))
-            .roles(UserRoles.ADMIN.getStringRepresentation())
+            .roles(Roles.of(UserRoles.ADMIN))
             .build();
         repo.save(user2);
 
@@ -186,7 +193,7 @@ public class UsersControllerTest {
 
     @Test
     public void test_findAllByRole_returnsNoContent_withNoMatchingRoles() {
-        user.setRoles(UserRoles.USER.getStringRepresentation());
+        user.setRoles(Roles.of(UserRoles.USER));
         repo.save(user);
 
         ResponseEntity<UserInfoDTO[]> response =
@@ -200,7 +207,7 @@ public class UsersControllerTest {
 
     @Test
     public void test_findAllByRole_returnsNoContent_withNonExistentRole() {
-        user.setRoles(UserRoles.USER.getStringRepresentation());
+        user.setRoles(Roles.of(UserRoles.USER));
         repo.save(user);
 
         ResponseEntity<UserInfoDTO[]> response =
@@ -239,7 +246,7 @@ public class UsersControllerTest {
 
     @Test
     public void test_update_changesName_whenGivenProperInput() {
-        user.setRoles(UserRoles.USER.getStringRepresentation());
+        user.setRoles(Roles.of(UserRoles.USER));
         Long userId = repo.save(user).getId();
 
         assertEquals(1, repo.findAll().size());
@@ -264,7 +271,7 @@ public class UsersControllerTest {
 
     @Test
     public void test_update_encodesPassword() {
-        user.setRoles(UserRoles.USER.getStringRepresentation());
+        user.setRoles(Roles.of(UserRoles.USER));
         Long userId = repo.save(user).getId();
 
         UserFormDTO updateUser = entityToFormDto(user, PASSWORD);
@@ -285,7 +292,7 @@ public class UsersControllerTest {
 
     @Test
     public void test_update_fails404_withNonexistentId() {
-        user.setRoles(UserRoles.USER.getStringRepresentation());
+        user.setRoles(Roles.of(UserRoles.USER));
         Long userId = repo.save(user).getId();
 
         assertEquals(1, repo.findAll().size());
@@ -309,14 +316,14 @@ public class UsersControllerTest {
 
     @Test
     public void test_update_fails_withDuplicateName() {
-        user.setRoles(UserRoles.USER.getStringRepresentation());
+        user.setRoles(Roles.of(UserRoles.USER));
         repo.save(user);
 
         String nonDuplicateName = "Name 2";
         UserEntity user2 = UserEntity.builder()
             .name(nonDuplicateName)
             .password(passwordEncoder.encode("Password 2"))
-            .roles(UserRoles.ADMIN.getStringRepresentation())
+            .roles(Roles.of(UserRoles.ADMIN))
             .build();
         Long userId = repo.save(user2).getId();
 
@@ -334,13 +341,14 @@ public class UsersControllerTest {
             );
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(response.getBody().contains("Name already exists."));
         assertEquals(2, repo.findAll().size());
         assertEquals(nonDuplicateName, repo.findById(userId).get().getName());
     }
 
     @Test
     public void test_udpate_fails_withInvalidRole() {
-        user.setRoles(UserRoles.USER.getStringRepresentation());
+        user.setRoles(Roles.of(UserRoles.USER));
         Long userId = repo.save(user).getId();
 
         UserFormDTO updateUser = entityToFormDto(user, PASSWORD);
@@ -356,9 +364,42 @@ public class UsersControllerTest {
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
 
+    @Test
+    public void test_update_fails409_withStaleVersion() {
+        user.setRoles(Roles.of(UserRoles.USER));
+        UserEntity savedUser = repo.save(user);
+        Long userId = savedUser.getId();
+        Long staleVersion = savedUser.getVersion();
+
+        UserFormDTO firstUpdate = entityToFormDto(user, PASSWORD);
+        firstUpdate.setVersion(staleVersion);
+        firstUpdate.setUsername("First Update");
+        ResponseEntity<UserInfoDTO> firstResponse =
+            restTemplate.postForEntity(
+                URI.create(UsersController.ENDPOINT + "/id/" + userId),
+                firstUpdate,
+                UserInfoDTO.class
+            );
+        assertEquals(HttpStatus.OK, firstResponse.getStatusCode());
+        assertEquals(staleVersion + 1, firstResponse.getBody().getVersion());
+
+        UserFormDTO secondUpdate = entityToFormDto(user, PASSWORD);
+        secondUpdate.setVersion(staleVersion);
+        secondUpdate.setUsername("Second Update");
+        ResponseEntity<String> secondResponse =
+            restTemplate.postForEntity(
+                URI.create(UsersController.ENDPOINT + "/id/" + userId),
+                secondUpdate,
+                String.class
+            );
+
+        assertEquals(HttpStatus.CONFLICT, secondResponse.getStatusCode());
+        assertEquals("First Update", repo.findById(userId).get().getName());
+    }
+
     @Test
     public void test_delete_succeeds() {
-        user.setRoles(UserRoles.USER.getStringRepresentation());
+        user.setRoles(Roles.of(UserRoles.USER));
         Long userId = repo.save(user).getId();
         assertEquals(1, repo.findAll().size());
 
@@ -369,11 +410,135 @@ public class UsersControllerTest {
         assertEquals(0, repo.findAll().size());
     }
 
+    @Test
+    public void test_bulkUpdateRoles_changesEveryUser() {
+        Long firstId = repo.save(user).getId();
+        Long secondId = repo.save(UserEntity.builder()
+            .name("Username 2")
+            .password(passwordEncoder.encode(PASSWORD))
+            .roles(Roles.of(UserRoles.USER))
+            .build()).getId();
+
+        BulkUsersDTO bulk = new BulkUsersDTO();
+        bulk.setIds(List.of(firstId, secondId));
+        bulk.setRoles(List.of(UserRoles.ADMIN.getStringRepresentation()));
+        ResponseEntity<UserInfoDTO[]> response =
+            restTemplate.postForEntity(
+                URI.create(UsersController.ENDPOINT + "/bulk/roles"),
+                bulk,
+                UserInfoDTO[].class
+            );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().length);
+        assertTrue(repo.findById(firstId).get().getRoles().contains(UserRoles.ADMIN));
+        assertTrue(repo.findById(secondId).get().getRoles().contains(UserRoles.ADMIN));
+    }
+
+    @Test
+    public void test_bulkDelete_fails404_andDeletesNothing_withNonexistentId() {
+        Long userId = repo.save(user).getId();
+
+        BulkUsersDTO bulk = new BulkUsersDTO();
+        bulk.setIds(List.of(userId, userId + 1000));
+        ResponseEntity<String> response =
+            restTemplate.postForEntity(
+                URI.create(UsersController.ENDPOINT + "/bulk/delete"),
+                bulk,
+                String.class
+            );
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(1, repo.findAll().size());
+    }
+
+    @Test
+    public void test_bulkUpdateRoles_fails400_andChangesNothing_whenDemotingEveryAdmin() {
+        user.setRoles(Roles.of(UserRoles.ADMIN));
+        Long firstId = repo.save(user).getId();
+        Long secondId = repo.save(UserEntity.builder()
+            .name("Username 2")
+            .password(passwordEncoder.encode(PASSWORD))
+            .roles(Roles.of(UserRoles.ADMIN))
+            .build()).getId();
+
+        BulkUsersDTO bulk = new BulkUsersDTO();
+        bulk.setIds(List.of(firstId, secondId));
+        bulk.setRoles(List.of(UserRoles.USER.getStringRepresentation()));
+        ResponseEntity<String> response =
+            restTemplate.postForEntity(
+                URI.create(UsersController.ENDPOINT + "/bulk/roles"),
+                bulk,
+                String.class
+            );
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(repo.findById(firstId).get().getRoles().contains(UserRoles.ADMIN));
+        assertTrue(repo.findById(secondId).get().getRoles().contains(UserRoles.ADMIN));
+    }
+
+    @Test
+    public void test_bulkDelete_fails400_andDeletesNothing_whenDeletingEveryAdmin() {
+        user.setRoles(Roles.of(UserRoles.ADMIN));
+        Long firstId = repo.save(user).getId();
+        Long secondId = repo.save(UserEntity.builder()
+            .name("Username 2")
+            .password(passwordEncoder.encode(PASSWORD))
+            .roles(Roles.of(UserRoles.ADMIN))
+            .build()).getId();
+
+        BulkUsersDTO bulk = new BulkUsersDTO();
+        bulk.setIds(List.of(firstId, secondId));
+        ResponseEntity<String> response =
+            restTemplate.postForEntity(
+                URI.create(UsersController.ENDPOINT + "/bulk/delete"),
+                bulk,
+                String.class
+            );
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(2, repo.findAll().size());
+    }
+
+    @Test
+    public void test_findAll_returns304_withCurrentETag() {
+        restTemplate.postForEntity(URI.create(UsersController.ENDPOINT), entityToFormDto(user, PASSWORD),
+            UserInfoDTO.class);
+        ResponseEntity<String> first = restTemplate.getForEntity(UsersController.ENDPOINT, String.class);
+        String eTag = first.getHeaders().getETag();
+
+        ResponseEntity<String> second = restTemplate.exchange(UsersController.ENDPOINT, HttpMethod.GET,
+            new HttpEntity<>(ifNoneMatch(eTag)), String.class);
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertEquals(eTag, second.getHeaders().getETag());
+    }
+
+    @Test
+    public void test_findAll_returnsNewETag_afterUserChanges() {
+        String eTag = restTemplate.getForEntity(UsersController.ENDPOINT, String.class).getHeaders().getETag();
+
+        restTemplate.postForEntity(URI.create(UsersController.ENDPOINT), entityToFormDto(user, PASSWORD),
+            UserInfoDTO.class);
+        ResponseEntity<String> response = restTemplate.exchange(UsersController.ENDPOINT, HttpMethod.GET,
+            new HttpEntity<>(ifNoneMatch(eTag)), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotEquals(eTag, response.getHeaders().getETag());
+    }
+
+    private HttpHeaders ifNoneMatch(String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        return headers;
+    }
+
     private UserFormDTO entityToFormDto(UserEntity entity, String unencryptedPassword) {
         UserFormDTO ret = new UserFormDTO();
         ret.setUsername(entity.getName());
         ret.setPassword(unencryptedPassword);
-        ret.setRoles(List.of(entity.getRoles().split(",")));
+        ret.setRoles(entity.getRoles().toList());
 
         return ret;
     }
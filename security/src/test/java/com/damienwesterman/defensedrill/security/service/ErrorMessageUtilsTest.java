@@ -0,0 +1,100 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.SQLException;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.damienwesterman.defensedrill.security.exception.DatabaseInsertException;
+
+public class ErrorMessageUtilsTest {
+    @Test
+    public void test_duplicateName_isReportedByConstraintName() {
+        assertEquals("Name already exists.",
+            messageFor(violation("23505", "constraint_unique_name")));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "23505, Value already exists.",
+        "23502, A required value is missing.",
+        "23503, Referenced value does not exist.",
+        "23514, Value is not allowed.",
+        "22001, Value is too long.",
+        "42P01, An error has occurred."
+    })
+    public void test_unmappedConstraint_fallsBackToSqlState(String sqlState, String expectedMessage) {
+        assertEquals(expectedMessage, messageFor(violation(sqlState, "constraint_not_in_the_map")));
+        assertEquals(expectedMessage, messageFor(violation(sqlState, null)));
+    }
+
+    @Test
+    public void test_sqlState_isFoundDeepInTheCauseChain() {
+        SQLException root = new SQLException("value too long", "22001");
+        DataIntegrityViolationException exception = new DataIntegrityViolationException("could not execute",
+            new RuntimeException(new RuntimeException(root)));
+
+        assertEquals("Value is too long.", messageFor(exception));
+    }
+
+    @Test
+    public void test_noSqlState_isGenericMessage() {
+        assertEquals("An error has occurred.",
+            messageFor(new DataIntegrityViolationException("could not execute")));
+    }
+
+    @Test
+    public void test_otherExceptions_areNotTranslated() {
+        IllegalStateException exception = new IllegalStateException("not a database problem");
+
+        assertSame(exception, assertThrows(IllegalStateException.class,
+            () -> ErrorMessageUtils.tryExecute(() -> { throw exception; })));
+    }
+
+    private static String messageFor(RuntimeException exception) {
+        return assertThrows(DatabaseInsertException.class,
+            () -> ErrorMessageUtils.tryExecute(() -> { throw exception; })).getMessage();
+    }
+
+    /**
+     * Shaped like what Spring Data hands back for a violated constraint.
+     */
+    private static DataIntegrityViolationException violation(String sqlState, String constraintName) {
+        SQLException root = new SQLException("constraint violated", sqlState);
+        return new DataIntegrityViolationException("could not execute statement",
+            new ConstraintViolationException("could not execute statement", root, constraintName));
+    }
+}
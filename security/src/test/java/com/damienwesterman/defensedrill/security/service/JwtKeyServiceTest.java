@@ -0,0 +1,250 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import com.damienwesterman.defensedrill.security.service.JwtKeyService.JwtKeys;
+
+public class JwtKeyServiceTest {
+    private static final Duration WAIT = Duration.ofSeconds(10);
+
+    static KeyPair firstPair;
+    static KeyPair secondPair;
+
+    FakeVault vault = new FakeVault();
+    JwtKeyService keyService;
+
+    @BeforeAll
+    public static void generateKeys() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        firstPair = generator.generateKeyPair();
+        secondPair = generator.generateKeyPair();
+    }
+
+    @AfterEach
+    public void stop() {
+        if (null != keyService) {
+            keyService.stop();
+        }
+    }
+
+    @Test
+    public void test_start_loadsKeys_andNotifiesSubscribers() throws Exception {
+        vault.serve(firstPair);
+        keyService = newService(Duration.ofSeconds(1));
+        List<JwtKeys> published = new CopyOnWriteArrayList<>();
+        keyService.subscribe(published::add);
+
+        keyService.start();
+        JwtKeys keys = keyService.awaitKeys(WAIT);
+
+        assertEquals(firstPair.getPublic(), keys.publicKey());
+        assertEquals(firstPair.getPrivate(), keys.privateKey());
+        assertEquals(List.of(keys), published);
+        assertEquals(Status.UP, keyService.health().getStatus());
+    }
+
+    @Test
+    public void test_refresh_publishesRotatedKeys_onlyWhenChanged() throws Exception {
+        vault.serve(firstPair);
+        keyService = newService(Duration.ofSeconds(1));
+        List<JwtKeys> published = new CopyOnWriteArrayList<>();
+        keyService.subscribe(published::add);
+        keyService.start();
+        keyService.awaitKeys(WAIT);
+
+        // Unchanged keys are not published again
+        vault.awaitCalls(vault.calls.get() + 2);
+        assertEquals(1, published.size());
+
+        vault.serve(secondPair);
+        awaitCondition(() -> 2 == published.size());
+        assertEquals(secondPair.getPublic(), published.get(1).publicKey());
+        assertSame(published.get(1), keyService.getKeys());
+    }
+
+    @Test
+    public void test_vaultFailure_keepsLastGoodKeys() throws Exception {
+        vault.serve(firstPair);
+        keyService = newService(Duration.ofSeconds(1));
+        keyService.start();
+        JwtKeys keys = keyService.awaitKeys(WAIT);
+
+        vault.fail();
+        awaitCondition(() -> 2 <= (int) keyService.health().getDetails().get("consecutiveRefreshFailures"));
+
+        assertSame(keys, keyService.getKeys());
+        assertEquals(Status.UP, keyService.health().getStatus());
+    }
+
+    @Test
+    public void test_hungPrivateKeyFetch_timesOut_andIsRetried() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        vault.serve(firstPair);
+        vault.blockPrivateKey(unblock);
+        keyService = newService(Duration.ofMillis(200));
+        keyService.start();
+
+        assertThrows(IllegalStateException.class, () -> keyService.awaitKeys(Duration.ofMillis(500)));
+        assertNull(keyService.getKeys());
+        assertEquals(Status.OUT_OF_SERVICE, keyService.health().getStatus());
+
+        // The refresh was not stuck behind the hung call, the next attempt picks the keys up
+        vault.blockPrivateKey(null);
+        unblock.countDown();
+        assertNotNull(keyService.awaitKeys(WAIT));
+    }
+
+    @Test
+    public void test_hungFetches_areInterrupted_onTimeout() throws Exception {
+        CountDownLatch neverUnblocked = new CountDownLatch(1);
+        vault.serve(firstPair);
+        vault.blockPrivateKey(neverUnblocked);
+        keyService = newService(Duration.ofMillis(50));
+        keyService.start();
+
+        // Every timed out attempt gives its thread back instead of leaving it stuck on Vault
+        awaitCondition(() -> vault.interrupted.get() >= 3);
+        assertNull(keyService.getKeys());
+    }
+
+    @Test
+    public void test_retryInterval_backsOffExponentially_upToMax() {
+        keyService = new JwtKeyService(vault, Duration.ofHours(1), Duration.ofSeconds(1), Duration.ofSeconds(10),
+            Duration.ofSeconds(1));
+
+        assertEquals(Duration.ofSeconds(1), keyService.retryIntervalFor(1));
+        assertEquals(Duration.ofSeconds(2), keyService.retryIntervalFor(2));
+        assertEquals(Duration.ofSeconds(8), keyService.retryIntervalFor(4));
+        assertEquals(Duration.ofSeconds(10), keyService.retryIntervalFor(5));
+        assertEquals(Duration.ofSeconds(10), keyService.retryIntervalFor(1000));
+    }
+
+    @Test
+    public void test_nextRefresh_followsShortestLease() {
+        keyService = new JwtKeyService(vault, Duration.ofHours(1), Duration.ofSeconds(1), Duration.ofSeconds(10),
+            Duration.ofSeconds(1));
+
+        assertEquals(Duration.ofMinutes(20), keyService.nextRefreshFor(Duration.ofMinutes(30), Duration.ofHours(2)));
+        assertEquals(Duration.ofHours(1), keyService.nextRefreshFor(Duration.ZERO, Duration.ZERO));
+        // Never refresh more often than the minimum retry interval
+        assertEquals(Duration.ofSeconds(1), keyService.nextRefreshFor(Duration.ofMillis(300), Duration.ofHours(1)));
+    }
+
+    private JwtKeyService newService(Duration fetchTimeout) {
+        return new JwtKeyService(vault, Duration.ofMillis(20), Duration.ofMillis(20), Duration.ofMillis(50),
+            fetchTimeout);
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + WAIT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Vault stand in serving a key pair without a lease.
+     */
+    static class FakeVault implements VaultService {
+        final AtomicReference<KeyPair> pair = new AtomicReference<>();
+        final AtomicReference<CountDownLatch> privateKeyBlock = new AtomicReference<>();
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger interrupted = new AtomicInteger();
+        volatile boolean failing = false;
+
+        void serve(KeyPair keyPair) {
+            failing = false;
+            pair.set(keyPair);
+        }
+
+        void fail() {
+            failing = true;
+        }
+
+        void blockPrivateKey(CountDownLatch latch) {
+            privateKeyBlock.set(latch);
+        }
+
+        void awaitCalls(int count) throws InterruptedException {
+            awaitCondition(() -> calls.get() >= count);
+        }
+
+        @Override
+        public Secret getJwtPublicKey() {
+            if (failing) {
+                throw new IllegalStateException("Vault is down");
+            }
+            return new Secret(Base64.getEncoder().encodeToString(pair.get().getPublic().getEncoded()),
+                Duration.ZERO);
+        }
+
+        @Override
+        public Secret getJwtPrivateKey() {
+            CountDownLatch latch = privateKeyBlock.get();
+            if (null != latch) {
+                try {
+                    latch.await(1, TimeUnit.MINUTES);
+                } catch (InterruptedException e) {
+                    interrupted.incrementAndGet();
+                    Thread.currentThread().interrupt();
+                }
+            }
+            calls.incrementAndGet();
+            if (failing) {
+                throw new IllegalStateException("Vault is down");
+            }
+            return new Secret(Base64.getEncoder().encodeToString(pair.get().getPrivate().getEncoded()),
+                Duration.ZERO);
+        }
+    }
+}
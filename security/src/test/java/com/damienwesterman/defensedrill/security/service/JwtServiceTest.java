@@ -0,0 +1,154 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.damienwesterman.defensedrill.security.client.TokenCheck;
+import com.damienwesterman.defensedrill.security.client.TokenVerifier;
+import com.damienwesterman.defensedrill.security.client.UserRoles;
+import com.damienwesterman.defensedrill.security.service.JwtKeyService.JwtKeys;
+import com.damienwesterman.defensedrill.security.service.JwtKeyServiceTest.FakeVault;
+import com.damienwesterman.defensedrill.security.util.Roles;
+
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class JwtServiceTest {
+    private static final Duration WAIT = Duration.ofSeconds(10);
+
+    static KeyPair firstPair;
+    static KeyPair secondPair;
+
+    FakeVault vault = new FakeVault();
+    JwtKeyService keyService;
+    JwtService jwtService;
+
+    @BeforeAll
+    public static void generateKeys() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        firstPair = generator.generateKeyPair();
+        secondPair = generator.generateKeyPair();
+    }
+
+    @BeforeEach
+    public void setup() {
+        vault.serve(firstPair);
+        keyService = new JwtKeyService(vault, Duration.ofMillis(20), Duration.ofMillis(20), Duration.ofMillis(50),
+            Duration.ofSeconds(1));
+        keyService.start();
+        keyService.awaitKeys(WAIT);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // Token epochs are only read when verifying, never when issuing
+        jwtService = new JwtService(keyService, new AuthenticationMetrics(meterRegistry), new TokenEpochs(null),
+            meterRegistry, WAIT, true, 0.5, 100);
+    }
+
+    @AfterEach
+    public void stop() {
+        keyService.stop();
+    }
+
+    @Test
+    public void test_reuse_handsOutSameToken_whileNothingChanged() {
+        String jwt = jwtService.generateToken(userDetails(UserRoles.USER, 1));
+
+        assertEquals(jwt, jwtService.generateToken(userDetails(UserRoles.USER, 1)));
+    }
+
+    @Test
+    public void test_reuse_issuesNewToken_afterEpochBump() {
+        String jwt = jwtService.generateToken(userDetails(UserRoles.USER, 1));
+
+        assertNotEquals(jwt, jwtService.generateToken(userDetails(UserRoles.USER, 2)));
+    }
+
+    @Test
+    public void test_reuse_issuesNewToken_forOtherRoles() {
+        String jwt = jwtService.generateToken(userDetails(UserRoles.USER, 1));
+
+        assertNotEquals(jwt, jwtService.generateToken(userDetails(UserRoles.ADMIN, 1)));
+    }
+
+    @Test
+    public void test_reuse_issuesNewToken_signedWithNewKey_afterRotation() throws InterruptedException {
+        String jwt = jwtService.generateToken(userDetails(UserRoles.USER, 1));
+        // Subscribers are called in order, so once this one sees the new keys the JwtService has them too
+        List<JwtKeys> published = new CopyOnWriteArrayList<>();
+        keyService.subscribe(published::add);
+
+        vault.serve(secondPair);
+        long deadline = System.nanoTime() + WAIT.toNanos();
+        while (2 > published.size()) {
+            assertTrue(System.nanoTime() < deadline, "Keys not rotated in time");
+            Thread.sleep(10);
+        }
+
+        String rotated = jwtService.generateToken(userDetails(UserRoles.USER, 1));
+        assertNotEquals(jwt, rotated);
+        assertEquals("Username 1",
+            Jwts.parser().verifyWith(secondPair.getPublic()).build().parseSignedClaims(rotated).getPayload()
+                .getSubject());
+    }
+
+    @Test
+    public void test_issuedTokens_alwaysPassPrecheck_andVerify() {
+        TokenVerifier verifier = new TokenVerifier(() -> firstPair.getPublic());
+        List<String> usernames = List.of("Username 1", "exp", "alg none", "\"exp\":0", "ünïcödé user", "a.b.c.d");
+        for (String username : usernames) {
+            for (UserRoles role : UserRoles.values()) {
+                DrillUserDetails userDetails =
+                    new DrillUserDetails(username, "", Roles.of(role).toAuthorities(), Long.MAX_VALUE);
+
+                TokenCheck check = verifier.check(jwtService.generateToken(userDetails));
+
+                assertNull(check.rejection(), username + " " + role);
+                assertEquals(username, check.token().username());
+            }
+        }
+    }
+
+    private static DrillUserDetails userDetails(UserRoles role, long tokenEpoch) {
+        return new DrillUserDetails("Username 1", "", Roles.of(role).toAuthorities(), tokenEpoch);
+    }
+}
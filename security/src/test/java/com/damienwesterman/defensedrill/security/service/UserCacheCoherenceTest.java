@@ -0,0 +1,54 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class UserCacheCoherenceTest {
+    @ParameterizedTest
+    @ValueSource(strings = { "defensedrill_user_changes", "_changes", "changes_2" })
+    public void test_channel_isAccepted_whenListenUsesItUnchanged(String channel) {
+        assertDoesNotThrow(() -> newCoherence(channel));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "UserChanges", "user-changes", "2_changes", "changes; DROP TABLE users",
+        "\"changes\"", "a_channel_name_that_is_longer_than_the_sixty_three_bytes_postgres_keeps" })
+    public void test_channel_isRejected_whenListenWouldChangeOrFailOnIt(String channel) {
+        assertThrows(IllegalArgumentException.class, () -> newCoherence(channel));
+    }
+
+    private static UserCacheCoherence newCoherence(String channel) {
+        return new UserCacheCoherence(null, null, null, null, null, new SimpleMeterRegistry(), true, channel);
+    }
+}
@@ -0,0 +1,146 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.damienwesterman.defensedrill.security.client.UserRoles;
+
+public class RolesTest {
+    @Test
+    public void test_of_returnsSharedInstances() {
+        assertSame(Roles.of(UserRoles.USER, UserRoles.ADMIN), Roles.of(UserRoles.ADMIN, UserRoles.USER));
+        assertSame(Roles.NONE, Roles.of());
+        assertTrue(Roles.NONE.isEmpty());
+    }
+
+    @Test
+    public void test_parse_acceptsPlainAndPrefixedRoles() {
+        Roles both = Roles.of(UserRoles.USER, UserRoles.ADMIN);
+
+        assertSame(both, Roles.parse("USER,ADMIN"));
+        assertSame(both, Roles.parse("ROLE_ADMIN,ROLE_USER"));
+        assertSame(both, Roles.parse("ADMIN,ROLE_USER,USER"));
+        assertSame(Roles.of(UserRoles.USER), Roles.parse("USER,"));
+        assertSame(Roles.NONE, Roles.parse(""));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "user", "USERS", "ROLE_", "ROLE_ROLE_USER", ",USER", "USER,,ADMIN", "USER ,ADMIN",
+        "ROLEUSER", "GUEST" })
+    public void test_parseOrNull_rejectsUnknownRoles(String roles) {
+        assertNull(Roles.parseOrNull(roles));
+        assertThrows(IllegalArgumentException.class, () -> Roles.parse(roles));
+    }
+
+    @Test
+    public void test_parseOrNull_returnsNull_forNull() {
+        assertNull(Roles.parseOrNull(null));
+    }
+
+    @Test
+    public void test_fromNames_rejectsUnknownAndNullNames() {
+        assertSame(Roles.of(UserRoles.ADMIN), Roles.fromNames(List.of("ADMIN")));
+        assertThrows(IllegalArgumentException.class, () -> Roles.fromNames(List.of("ADMIN", "OWNER")));
+        assertThrows(IllegalArgumentException.class, () -> Roles.fromNames(Arrays.asList("USER", null)));
+    }
+
+    @Test
+    public void test_fromAuthorities_ignoresNonRoleAuthorities() {
+        List<GrantedAuthority> authorities = List.of(
+            new SimpleGrantedAuthority("ROLE_USER"),
+            new SimpleGrantedAuthority("SCOPE_read"),
+            () -> null);
+
+        assertSame(Roles.of(UserRoles.USER), Roles.fromAuthorities(authorities));
+    }
+
+    @Test
+    public void test_grants_followsHierarchy_butContainsDoesNot() {
+        Roles admin = Roles.of(UserRoles.ADMIN);
+
+        assertTrue(admin.grants(UserRoles.ADMIN));
+        assertTrue(admin.grants(UserRoles.USER));
+        assertTrue(admin.contains(UserRoles.ADMIN));
+        assertFalse(admin.contains(UserRoles.USER));
+
+        Roles user = Roles.of(UserRoles.USER);
+        assertTrue(user.grants(UserRoles.USER));
+        assertFalse(user.grants(UserRoles.ADMIN));
+    }
+
+    @Test
+    public void test_restrictTo_keepsOnlyGrantedRole() {
+        Roles admin = Roles.of(UserRoles.ADMIN);
+
+        assertSame(Roles.of(UserRoles.USER), admin.restrictTo(UserRoles.USER));
+        assertSame(admin, admin.restrictTo(UserRoles.ADMIN));
+        assertSame(Roles.NONE, Roles.of(UserRoles.USER).restrictTo(UserRoles.ADMIN));
+        assertSame(Roles.NONE, admin.restrictTo(null));
+    }
+
+    @Test
+    public void test_representations_explicitVersusEffective() {
+        Roles admin = Roles.of(UserRoles.ADMIN);
+
+        assertEquals("ADMIN", admin.toString());
+        assertEquals(List.of("ADMIN"), admin.toList());
+        assertEquals("ROLE_USER,ROLE_ADMIN", admin.toAuthorityString());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN")),
+            admin.toAuthorities());
+        // Authorities include implied roles, so reading them back yields the effective roles
+        assertSame(Roles.of(UserRoles.USER, UserRoles.ADMIN), Roles.fromAuthorities(admin.toAuthorities()));
+    }
+
+    @Test
+    public void test_everyCombination_roundTrips() {
+        for (int mask = 0; mask < 1 << UserRoles.values().length; mask++) {
+            final int selected = mask;
+            UserRoles[] roles = Arrays.stream(UserRoles.values())
+                .filter(role -> 0 != (selected & (1 << role.ordinal())))
+                .toArray(UserRoles[]::new);
+            Roles original = Roles.of(roles);
+
+            assertSame(original, Roles.parse(original.toString()));
+            assertSame(original, Roles.fromNames(original.toList()));
+        }
+    }
+}
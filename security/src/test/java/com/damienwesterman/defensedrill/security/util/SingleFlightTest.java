@@ -0,0 +1,186 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class SingleFlightTest {
+    private static final int FOLLOWERS = 4;
+
+    SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+    ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    public void shutdown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void test_concurrentCalls_shareLeaderResult() throws Exception {
+        Object value = new Object();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Object>> results = runConcurrently(() -> {
+            computations.incrementAndGet();
+            await(release);
+            return value;
+        });
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            assertSame(value, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, computations.get());
+        assertEquals(FOLLOWERS, singleFlight.getSharedCalls());
+    }
+
+    @Test
+    public void test_leaderFailure_isRethrownToEveryCaller() throws Exception {
+        IllegalStateException failure = new IllegalStateException("lookup failed");
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Object>> results = runConcurrently(() -> {
+            await(release);
+            throw failure;
+        });
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+        }
+
+        // The failed key is forgotten, the next call computes again
+        assertEquals("retried", singleFlight.execute("key", () -> "retried"));
+    }
+
+    @Test
+    public void test_keyIsForgotten_afterLeaderFinishes() {
+        AtomicInteger computations = new AtomicInteger();
+
+        singleFlight.execute("key", computations::incrementAndGet);
+        singleFlight.execute("key", computations::incrementAndGet);
+
+        assertEquals(2, computations.get());
+        assertEquals(0, singleFlight.getSharedCalls());
+    }
+
+    @Test
+    public void test_nullValue_isShared() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Object>> results = runConcurrently(() -> {
+            await(release);
+            return null;
+        });
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            assertNull(result.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void test_differentKeys_areNotCoalesced() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+        Future<Object> first = executor.submit(() -> singleFlight.execute("first", () -> {
+            computations.incrementAndGet();
+            await(release);
+            return "first";
+        }));
+        awaitCondition(() -> 1 == computations.get());
+
+        assertEquals("second", singleFlight.execute("second", () -> {
+            computations.incrementAndGet();
+            return "second";
+        }));
+        release.countDown();
+
+        assertEquals("first", first.get(5, TimeUnit.SECONDS));
+        assertEquals(2, computations.get());
+    }
+
+    /**
+     * Start a leader running the computation, then the followers, and only return once every follower is
+     * waiting on the leader.
+     */
+    private List<Future<Object>> runConcurrently(Supplier<Object> computation) throws InterruptedException {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        List<Future<Object>> results = new ArrayList<>();
+        results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+            leaderStarted.countDown();
+            return computation.get();
+        })));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < FOLLOWERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                throw new AssertionError("Only the leader computes");
+            })));
+        }
+        awaitCondition(() -> FOLLOWERS == singleFlight.getSharedCalls());
+
+        return results;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitCondition(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.get()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/****************************\
+ *      ________________      *
+ *     /  _             \     *
+ *     \   \ |\   _  \  /     *
+ *      \  / | \ / \  \/      *
+ *      /  \ | / | /  /\      *
+ *     /  _/ |/  \__ /  \     *
+ *     \________________/     *
+ *                            *
+ \****************************/
+/*
+ * Copyright 2025 Damien Westerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.damienwesterman.defensedrill.security.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import com.damienwesterman.defensedrill.security.bulkhead.Bulkhead;
+import com.damienwesterman.defensedrill.security.exception.BulkheadFullException;
+import com.damienwesterman.defensedrill.security.web.dto.ErrorMessageDTO;
+
+public class GlobalExceptionHandlerTest {
+    GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    public void test_bulkheadFull_wrappedByTransaction_is503WithRetryAfter() {
+        ResponseEntity<ErrorMessageDTO> response = handler.handleGenericException(
+            new CannotCreateTransactionException("Could not open JPA EntityManager", bulkheadFull()));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals(Bulkhead.RETRY_AFTER_SECONDS, response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    public void test_bulkheadFull_wrappedByDataAccess_is503() {
+        ResponseEntity<ErrorMessageDTO> response = handler.handleGenericException(
+            new DataAccessResourceFailureException("Unable to acquire JDBC Connection",
+                new RuntimeException(bulkheadFull())));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    }
+
+    @Test
+    public void test_otherException_is500() {
+        ResponseEntity<ErrorMessageDTO> response = handler.handleGenericException(
+            new DataAccessResourceFailureException("Connection refused"));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    private static BulkheadFullException bulkheadFull() {
+        return new BulkheadFullException("Bulkhead login has no database connections left");
+    }
+}